@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.controls;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Transform;
+import org.onyxfx.graphics.util.OFxImageCache;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * Renders the bitmaps shown by {@link OFxAvatarView}, off the FX thread.
+ * A source is decoded at the pixel size it is shown at, then masked by a circle and tinted once, so the
+ * avatar can show the result in a plain ImageView without any clip or effect. The bitmaps are kept in
+ * {@link OFxImageCache}, under the source, size, mask, tint and render scale they were made for.
+ * Initials are drawn on the FX thread instead, since text can only be drawn there, and cached the same way.
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+final class OFxAvatarRasterizer {
+
+    private OFxAvatarRasterizer() {
+    }
+
+    /**
+     * Returns the bitmap of a source, a URL or an Image, stretched over width x height, masked by a circle of the
+     * given radius around its center and tinted with the given color, at the given render scale.
+     * The tint replaces the colors of the source as much as its opacity, and is skipped when null.
+     */
+    static CompletableFuture<Image> render(Object source, double width, double height, double radius, Color tint, double scale) {
+        // An image loaded from a URL is decoded again from it, at the size needed.
+        Object sourceKey = source instanceof Image && ((Image) source).getUrl() != null ? ((Image) source).getUrl() : source;
+        int pixelWidth = Math.max(1, (int) Math.ceil(width * scale));
+        int pixelHeight = Math.max(1, (int) Math.ceil(height * scale));
+        Key key = new Key(sourceKey, pixelWidth, pixelHeight, radius * scale, tint, 1);
+        return OFxImageCache.load(key, () -> {
+            Image image = sourceKey instanceof String
+                    ? OFxImageCache.decode((String) sourceKey, pixelWidth, pixelHeight, false)
+                    : (Image) sourceKey;
+            return rasterize(image, pixelWidth, pixelHeight, radius * scale, tint);
+        });
+    }
+
+    /**
+     * Returns the bitmap of initials drawn centered over a transparent square of the given size, at the given
+     * render scale. Must be called on the FX thread.
+     */
+    static Image renderInitials(String initials, Font font, Color color, double size, double scale) {
+        return OFxImageCache.get(new Key(new InitialsSource(initials, font), size, size, 0, color, scale), () -> {
+            Canvas canvas = new Canvas(size, size);
+            GraphicsContext g = canvas.getGraphicsContext2D();
+            g.setFont(font);
+            g.setFill(color);
+            g.setTextAlign(TextAlignment.CENTER);
+            g.setTextBaseline(VPos.CENTER);
+            g.fillText(initials, size / 2, size / 2);
+
+            SnapshotParameters parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+            parameters.setTransform(Transform.scale(scale, scale));
+            int pixels = Math.max(1, (int) Math.ceil(size * scale));
+            return canvas.snapshot(parameters, new WritableImage(pixels, pixels));
+        });
+    }
+
+    private static Image rasterize(Image source, int width, int height, double radius, Color tint) {
+        int sourceWidth = (int) source.getWidth();
+        int sourceHeight = (int) source.getHeight();
+        int[] in = new int[sourceWidth * sourceHeight];
+        source.getPixelReader().getPixels(0, 0, sourceWidth, sourceHeight, PixelFormat.getIntArgbInstance(), in, 0, sourceWidth);
+
+        double stepX = sourceWidth / (double) width;
+        double stepY = sourceHeight / (double) height;
+        double centerX = width / 2.0;
+        double centerY = height / 2.0;
+        double tintAlpha = tint == null ? 0 : tint.getOpacity();
+        double[] pixel = new double[4];
+        int[] out = new int[width * height];
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // Antialiased edge of the circle.
+                double dx = x + 0.5 - centerX;
+                double dy = y + 0.5 - centerY;
+                double coverage = Math.min(1, radius - Math.sqrt(dx * dx + dy * dy) + 0.5);
+                if (coverage <= 0) continue;
+
+                sample(in, sourceWidth, sourceHeight, x * stepX, y * stepY, stepX, stepY, pixel);
+                double a = pixel[0];
+                if (a <= 0) continue;
+                // Un-premultiplying, then blending the tint over the opaque part only, like a SRC_ATOP blend.
+                double r = pixel[1] / a, g = pixel[2] / a, b = pixel[3] / a;
+                if (tintAlpha > 0) {
+                    r = tint.getRed() * tintAlpha + r * (1 - tintAlpha);
+                    g = tint.getGreen() * tintAlpha + g * (1 - tintAlpha);
+                    b = tint.getBlue() * tintAlpha + b * (1 - tintAlpha);
+                }
+                a *= coverage;
+                out[y * width + x] = (int) Math.round(a * 255) << 24
+                        | (int) Math.round(r * 255) << 16
+                        | (int) Math.round(g * 255) << 8
+                        | (int) Math.round(b * 255);
+            }
+        }
+
+        WritableImage image = new WritableImage(width, height);
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), out, 0, width);
+        return image;
+    }
+
+    // Averages the source pixels under an output pixel, premultiplied. A footprint smaller than a source pixel
+    // (the source is enlarged) reads the nearest one.
+    private static void sample(int[] in, int sourceWidth, int sourceHeight, double x, double y,
+                               double stepX, double stepY, double[] pixel) {
+        int x0 = Math.min(sourceWidth - 1, (int) x);
+        int y0 = Math.min(sourceHeight - 1, (int) y);
+        int x1 = Math.max(x0 + 1, Math.min(sourceWidth, (int) Math.ceil(x + stepX)));
+        int y1 = Math.max(y0 + 1, Math.min(sourceHeight, (int) Math.ceil(y + stepY)));
+        double a = 0, r = 0, g = 0, b = 0;
+        for (int sy = y0; sy < y1; sy++) {
+            for (int sx = x0; sx < x1; sx++) {
+                int argb = in[sy * sourceWidth + sx];
+                double alpha = (argb >>> 24) / 255.0;
+                a += alpha;
+                r += alpha * ((argb >> 16) & 0xFF) / 255.0;
+                g += alpha * ((argb >> 8) & 0xFF) / 255.0;
+                b += alpha * (argb & 0xFF) / 255.0;
+            }
+        }
+        double count = (x1 - x0) * (y1 - y0);
+        pixel[0] = a / count;
+        pixel[1] = r / count;
+        pixel[2] = g / count;
+        pixel[3] = b / count;
+    }
+
+    // Identifies a bitmap by what it was rendered from.
+    private static final class Key {
+        private final Object source;
+        private final double width;
+        private final double height;
+        private final double radius;
+        private final Color tint;
+        private final double scale;
+
+        Key(Object source, double width, double height, double radius, Color tint, double scale) {
+            this.source = source;
+            this.width = width;
+            this.height = height;
+            this.radius = radius;
+            this.tint = tint;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return width == key.width && height == key.height && radius == key.radius && scale == key.scale
+                    && source.equals(key.source) && Objects.equals(tint, key.tint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, width, height, radius, tint, scale);
+        }
+    }
+
+    // Source of an initials bitmap.
+    private static final class InitialsSource {
+        private final String initials;
+        private final Font font;
+
+        InitialsSource(String initials, Font font) {
+            this.initials = initials;
+            this.font = font;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof InitialsSource)) return false;
+            InitialsSource source = (InitialsSource) o;
+            return initials.equals(source.initials) && font.equals(source.font);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(initials, font);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.controls;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.VPos;
+import javafx.scene.AccessibleRole;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.Window;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * Strip of overlapping avatars, such as the participants of a call, drawn into a single canvas.
+ * - The first {@link #maxVisibleProperty() maxVisible} members are shown, the others are counted in a "+N" badge
+ * - Members are drawn like {@link OFxAvatarView}: their picture rounded by {@link OFxAvatarRasterizer}, or their
+ *   initials over the color remembered under their id
+ * - The canvas is only redrawn when the members or the look change, or once a picture has loaded
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+public class OFxAvatarStack extends Region {
+
+    private final ObservableList<Member> members = FXCollections.observableArrayList();
+    private final IntegerProperty maxVisible = new SimpleIntegerProperty(5);
+    private final DoubleProperty size = new SimpleDoubleProperty(32);
+    // Fraction of an avatar covered by the next one.
+    private final DoubleProperty overlap = new SimpleDoubleProperty(0.3);
+    // Ring drawn around each avatar to separate it from the one below, usually the color behind the strip.
+    private final ObjectProperty<Color> ringColor = new SimpleObjectProperty<>(Color.WHITE);
+    private final ObjectProperty<Color> initialsColor = new SimpleObjectProperty<>(Color.WHITE);
+    private final ObjectProperty<Color> badgeColor = new SimpleObjectProperty<>(Color.web("#E0E0E0"));
+    private final ObjectProperty<Color> badgeTextColor = new SimpleObjectProperty<>(Color.web("#424242"));
+
+    private final Canvas canvas = new Canvas();
+    // Output scale of the window, the pictures are rendered at.
+    private final ObservableValue<Number> renderScale =
+            sceneProperty().flatMap(Scene::windowProperty).flatMap(Window::outputScaleXProperty);
+    private boolean dirty = true;
+
+    public OFxAvatarStack() {
+        getStyleClass().add("ofx-avatar-stack");
+        setAccessibleRole(AccessibleRole.TEXT);
+        getChildren().add(canvas);
+
+        InvalidationListener redrawListener = obs -> invalidate();
+        for (Observable observable : List.of(members, maxVisible, size, overlap, ringColor, initialsColor,
+                badgeColor, badgeTextColor)) {
+            observable.addListener(redrawListener);
+        }
+        renderScale.addListener((obs, oldVal, newVal) -> {
+            if (newVal != null) invalidate();
+        });
+    }
+
+    public OFxAvatarStack(Member... members) {
+        this();
+        this.members.setAll(members);
+    }
+
+    // Redraws the canvas on the next layout pass, however many changes come in before it.
+    private void invalidate() {
+        dirty = true;
+        requestLayout();
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        int count = Math.min(members.size(), maxVisible.get()) + (hiddenCount() > 0 ? 1 : 0);
+        double width = count == 0 ? 0 : size.get() + (count - 1) * step();
+        return snappedLeftInset() + width + snappedRightInset();
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return snappedTopInset() + (members.isEmpty() ? 0 : size.get()) + snappedBottomInset();
+    }
+
+    @Override
+    protected double computeMaxWidth(double height) {
+        return computePrefWidth(height);
+    }
+
+    @Override
+    protected double computeMaxHeight(double width) {
+        return computePrefHeight(width);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        canvas.relocate(snappedLeftInset(), snappedTopInset());
+        if (!dirty) return;
+        dirty = false;
+        redraw();
+    }
+
+    private void redraw() {
+        double scale = renderScale.getValue() != null ? renderScale.getValue().doubleValue() : 1;
+        double diameter = size.get();
+        double ring = Math.max(1, diameter / 16);
+        int visible = Math.min(members.size(), maxVisible.get());
+        int hidden = hiddenCount();
+
+        double width = computePrefWidth(-1) - snappedLeftInset() - snappedRightInset();
+        canvas.setWidth(width);
+        canvas.setHeight(members.isEmpty() ? 0 : diameter);
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        Font initialsFont = Font.font(Font.getDefault().getFamily(), FontWeight.BOLD, diameter * 0.4);
+        for (int i = 0; i < visible; i++) {
+            Member member = members.get(i);
+            double x = i * step();
+            Image picture = picture(member, scale);
+            if (picture != null) {
+                g.drawImage(picture, x, 0, diameter, diameter);
+            } else {
+                g.setFill(OFxAvatarView.loadOrGenerateColor(member.getId()));
+                g.fillOval(x, 0, diameter, diameter);
+                String initials = OFxAvatarView.initialsOf(member.getName());
+                if (!initials.isEmpty()) {
+                    g.drawImage(OFxAvatarRasterizer.renderInitials(initials, initialsFont, initialsColor.get(), diameter, scale),
+                            x, 0, diameter, diameter);
+                }
+            }
+            strokeRing(g, x, diameter, ring);
+        }
+
+        if (hidden > 0) {
+            double x = visible * step();
+            g.setFill(badgeColor.get());
+            g.fillOval(x, 0, diameter, diameter);
+            strokeRing(g, x, diameter, ring);
+            g.setFill(badgeTextColor.get());
+            g.setFont(Font.font(Font.getDefault().getFamily(), FontWeight.BOLD, diameter * 0.34));
+            g.setTextAlign(TextAlignment.CENTER);
+            g.setTextBaseline(VPos.CENTER);
+            g.fillText("+" + hidden, x + diameter / 2, diameter / 2);
+        }
+        setAccessibleText(describe(visible, hidden));
+    }
+
+    // Returns the rendered picture of a member, or null until it is ready, redrawing once it is.
+    private Image picture(Member member, double scale) {
+        if (member.getImageUrl() == null) return null;
+        CompletableFuture<Image> future = OFxAvatarRasterizer.render(member.getImageUrl(), size.get(), size.get(),
+                size.get() / 2, null, scale);
+        if (!future.isDone()) {
+            future.thenRun(this::invalidate);
+            return null;
+        }
+        return future.isCompletedExceptionally() ? null : future.join();
+    }
+
+    private void strokeRing(GraphicsContext g, double x, double diameter, double ring) {
+        g.setStroke(ringColor.get());
+        g.setLineWidth(ring);
+        g.strokeOval(x + ring / 2, ring / 2, diameter - ring, diameter - ring);
+    }
+
+    private String describe(int visible, int hidden) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < visible; i++) {
+            if (i > 0) text.append(i == visible - 1 && hidden == 0 ? " and " : ", ");
+            text.append(members.get(i).getName());
+        }
+        if (hidden > 0) text.append(" and ").append(hidden).append(hidden == 1 ? " other" : " others");
+        return text.toString();
+    }
+
+    private double step() {
+        return size.get() * (1 - overlap.get());
+    }
+
+    private int hiddenCount() {
+        return Math.max(0, members.size() - maxVisible.get());
+    }
+
+    public ObservableList<Member> getMembers() {
+        return members;
+    }
+
+    public int getMaxVisible() {
+        return maxVisible.get();
+    }
+
+    public void setMaxVisible(int value) {
+        maxVisible.set(value);
+    }
+
+    public IntegerProperty maxVisibleProperty() {
+        return maxVisible;
+    }
+
+    public double getSize() {
+        return size.get();
+    }
+
+    public void setSize(double value) {
+        size.set(value);
+    }
+
+    public DoubleProperty sizeProperty() {
+        return size;
+    }
+
+    public double getOverlap() {
+        return overlap.get();
+    }
+
+    public void setOverlap(double value) {
+        overlap.set(value);
+    }
+
+    public DoubleProperty overlapProperty() {
+        return overlap;
+    }
+
+    public Color getRingColor() {
+        return ringColor.get();
+    }
+
+    public void setRingColor(Color color) {
+        ringColor.set(color);
+    }
+
+    public ObjectProperty<Color> ringColorProperty() {
+        return ringColor;
+    }
+
+    public Color getInitialsColor() {
+        return initialsColor.get();
+    }
+
+    public void setInitialsColor(Color color) {
+        initialsColor.set(color);
+    }
+
+    public ObjectProperty<Color> initialsColorProperty() {
+        return initialsColor;
+    }
+
+    public Color getBadgeColor() {
+        return badgeColor.get();
+    }
+
+    public void setBadgeColor(Color color) {
+        badgeColor.set(color);
+    }
+
+    public ObjectProperty<Color> badgeColorProperty() {
+        return badgeColor;
+    }
+
+    public Color getBadgeTextColor() {
+        return badgeTextColor.get();
+    }
+
+    public void setBadgeTextColor(Color color) {
+        badgeTextColor.set(color);
+    }
+
+    public ObjectProperty<Color> badgeTextColorProperty() {
+        return badgeTextColor;
+    }
+
+    /**
+     * A member of a stack: its id, under which its color is remembered, its display name, and optionally its
+     * picture, a URL or a key registered in OFxImageCache.
+     */
+    public static final class Member {
+        private final String id;
+        private final String name;
+        private final String imageUrl;
+
+        public Member(String id, String name) {
+            this(id, name, null);
+        }
+
+        public Member(String id, String name, String imageUrl) {
+            this.id = Objects.requireNonNull(id, "id");
+            this.name = name != null ? name : "";
+            this.imageUrl = imageUrl;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getImageUrl() {
+            return imageUrl;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Member)) return false;
+            Member member = (Member) o;
+            return id.equals(member.id) && name.equals(member.name) && Objects.equals(imageUrl, member.imageUrl);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name, imageUrl);
+        }
+    }
+}
@@ -1,27 +1,40 @@
 package org.onyxfx.graphics.controls;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.*;
+import javafx.beans.value.ObservableValue;
 import javafx.geometry.Insets;
+import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.scene.effect.Blend;
-import javafx.scene.effect.BlendMode;
-import javafx.scene.effect.ColorInput;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
-
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.stage.Window;
+import org.onyxfx.graphics.util.OFxImageCache;
+import org.onyxfx.graphics.util.OFxPreferenceStore;
+import org.onyxfx.graphics.util.OFxWriteBehindPreferenceStore;
+
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.prefs.Preferences;
 
 /**
  * @ONYX-FX
  *
  * A customizable, interactive avatar view that extends Button.
- * - Circular clipped image for default avatar mode
+ * - Circular image for default avatar mode
+ * - Initials mode, drawing initials over the background color instead of the default image, once per
+ *   initials, color, size, font and render scale
  * - Full component image takeover for uploaded avatars (still rounded)
- * - Background color stored in Preferences
+ * - Images rounded and tinted once off the FX thread by {@link OFxAvatarRasterizer}, at the render scale
+ *   of the window, and shown without clip or effect
+ * - Background color remembered in an {@link OFxPreferenceStore}, per {@link #colorKeyProperty() color key}
  * - Customizable background colors for hover and pressed states
  * - Clickable, hoverable, focusable
  * - Optional image tinting (default avatar only)
@@ -30,12 +43,23 @@ import java.util.prefs.Preferences;
 public class OFxAvatarView extends StackPane {
 
     private static final Random RANDOM = new Random();
-    private static final Preferences PREFS = Preferences.userNodeForPackage(OFxAvatarView.class);
     private static final String COLOR_PREF_KEY = "ofx-avatar-color";
 
+    // Store remembering the background colors, created on first use.
+    private static OFxPreferenceStore preferenceStore;
+
     private final ObjectProperty<Image> defaultImage = new SimpleObjectProperty<>();
     private final ObjectProperty<Image> uploadedImage = new SimpleObjectProperty<>();
+    // Sources of the images above, URLs or keys registered in OFxImageCache, used instead of the images when set.
+    private final StringProperty defaultImageUrl = new SimpleStringProperty();
+    private final StringProperty uploadedImageUrl = new SimpleStringProperty();
     private final DoubleProperty size = new SimpleDoubleProperty(40);
+    // Initials shown instead of the default image when set, in the tint color.
+    private final StringProperty initials = new SimpleStringProperty();
+    // Font of the initials, a bold one scaled to the size when null.
+    private final ObjectProperty<Font> initialsFont = new SimpleObjectProperty<>();
+    // Key the background color is remembered under, such as a user id; null shares one color between avatars.
+    private final StringProperty colorKey = new SimpleStringProperty();
     private final ObjectProperty<Color> backgroundColor = new SimpleObjectProperty<>(loadOrGenerateColor());
     private final ObjectProperty<Color> hoverColor = new SimpleObjectProperty<>(Color.LIGHTGRAY);
     private final ObjectProperty<Color> pressedColor = new SimpleObjectProperty<>(Color.GRAY);
@@ -47,10 +71,27 @@ public class OFxAvatarView extends StackPane {
     private final ObjectProperty<Color> statusColor = new SimpleObjectProperty<>(Color.LIMEGREEN);
     private final ObjectProperty<Color> statusRingColor = new SimpleObjectProperty<>(Color.DARKBLUE);
 
+    private static final Background TRANSPARENT_BACKGROUND = circleBackground(Color.TRANSPARENT);
+
+    // Backgrounds of the button states, only rebuilt when their color changes.
+    private Background normalBackground;
+    private Background hoverBackground;
+    private Background pressedBackground;
+
     private final ImageView imageView = new ImageView();
-    private final Circle clip = new Circle();
-    private final Blend tintEffect = new Blend();
-    private final ColorInput hoverOverlay = new ColorInput();
+    // Output scale of the window, the avatar bitmaps are rendered at.
+    private final ObservableValue<Number> renderScale =
+            sceneProperty().flatMap(Scene::windowProperty).flatMap(Window::outputScaleXProperty);
+    // Rendered bitmap, and its hover variant in uploaded mode, which is only rendered once hovered.
+    private Image renderedImage;
+    private Image renderedHoverImage;
+    // Bumped on every render, so only the bitmaps of the latest one are shown.
+    private int renderVersion;
+    // Image still loading in the background when last rendered, rendered again once its size and pixels are known.
+    private Image loadingImage;
+    private final InvalidationListener loadingListener = obs -> {
+        if (obs != loadingImage.progressProperty() || loadingImage.getProgress() >= 1) renderImage();
+    };
 
     private final Circle statusRing = new Circle();
     private final Circle statusDot = new Circle();
@@ -77,15 +118,38 @@ public class OFxAvatarView extends StackPane {
         imageView.setSmooth(true);
         button.setGraphic(imageView);
 
+        normalBackground = circleBackground(backgroundColor.get());
+        hoverBackground = circleBackground(hoverColor.get());
+        pressedBackground = circleBackground(pressedColor.get());
+
         uploadedImage.addListener((obs, old, newVal) -> updateVisualMode());
         defaultImage.addListener((obs, old, newVal) -> updateVisualMode());
+        uploadedImageUrl.addListener((obs, old, newVal) -> updateVisualMode());
+        defaultImageUrl.addListener((obs, old, newVal) -> updateVisualMode());
         updateVisualMode();
 
+        InvalidationListener renderListener = obs -> renderImage();
+        for (Observable observable : List.of(size, fitWidth, fitHeight, tintColor, initials, initialsFont)) {
+            observable.addListener(renderListener);
+        }
+        // Leaving a window keeps the bitmap, it is rendered again once in a window with another scale.
+        renderScale.addListener((obs, oldVal, newVal) -> {
+            if (newVal != null) renderImage();
+        });
+        hoverColor.addListener(obs -> {
+            hoverBackground = circleBackground(hoverColor.get());
+            renderedHoverImage = null;
+            if (isUploadedMode() && button.isHover()) showHoverImage();
+        });
+
         backgroundColor.addListener((obs, old, val) -> {
-            if (uploadedImage.get() == null) {
-                updateButtonBackground(val);
+            normalBackground = circleBackground(val);
+            if (!isUploadedMode()) {
+                button.setBackground(normalBackground);
             }
         });
+        pressedColor.addListener((obs, old, val) -> pressedBackground = circleBackground(val));
+        colorKey.addListener((obs, old, key) -> backgroundColor.set(loadOrGenerateColor(key)));
 
         size.addListener((obs, oldVal, newVal) -> {
             double val = newVal.doubleValue();
@@ -96,40 +160,29 @@ public class OFxAvatarView extends StackPane {
             updateStatusLayout();
         });
 
-        hoverOverlay.setX(0);
-        hoverOverlay.setY(0);
-        hoverOverlay.widthProperty().bind(widthProperty());
-        hoverOverlay.heightProperty().bind(heightProperty());
-
         button.setOnMouseEntered(e -> {
-            if (uploadedImage.get() != null) {
-                hoverOverlay.setPaint(applyAlpha(hoverColor.get(), 0.25));
-                tintEffect.setTopInput(hoverOverlay);
-                tintEffect.setMode(BlendMode.SRC_ATOP);
-                imageView.setEffect(tintEffect);
+            if (isUploadedMode()) {
+                showHoverImage();
             } else {
-                updateButtonBackground(hoverColor.get());
+                button.setBackground(hoverBackground);
             }
         });
 
         button.setOnMouseExited(e -> {
-            if (uploadedImage.get() != null) {
-                imageView.setEffect(null);
-                updateButtonBackground(Color.TRANSPARENT);
+            if (isUploadedMode()) {
+                imageView.setImage(renderedImage);
+                button.setBackground(TRANSPARENT_BACKGROUND);
             } else {
-                updateButtonBackground(backgroundColor.get());
+                button.setBackground(normalBackground);
             }
         });
 
-        button.setOnMousePressed(e -> updateButtonBackground(pressedColor.get()));
+        button.setOnMousePressed(e -> button.setBackground(pressedBackground));
         button.setOnMouseReleased(e -> {
-            if (uploadedImage.get() != null) {
-                hoverOverlay.setPaint(applyAlpha(hoverColor.get(), 0.25));
-                tintEffect.setTopInput(hoverOverlay);
-                tintEffect.setMode(BlendMode.SRC_ATOP);
-                imageView.setEffect(tintEffect);
+            if (isUploadedMode()) {
+                showHoverImage();
             } else {
-                updateButtonBackground(hoverColor.get());
+                button.setBackground(hoverBackground);
             }
         });
 
@@ -144,48 +197,123 @@ public class OFxAvatarView extends StackPane {
     }
 
     private void updateVisualMode() {
-        if (uploadedImage.get() != null) {
-            imageView.setImage(uploadedImage.get());
-            imageView.setPreserveRatio(false);
-            Circle fullClip = new Circle();
-            fullClip.radiusProperty().bind(size.divide(2));
-            fullClip.centerXProperty().bind(size.divide(2));
-            fullClip.centerYProperty().bind(size.divide(2));
-            imageView.setClip(fullClip);
-            imageView.setEffect(null);
-            imageView.setFitWidth(getWidth());
-            imageView.setFitHeight(getHeight());
-            widthProperty().addListener((obs, old, val) -> imageView.setFitWidth(val.doubleValue()));
-            heightProperty().addListener((obs, old, val) -> imageView.setFitHeight(val.doubleValue()));
-            updateButtonBackground(Color.TRANSPARENT);
+        if (isUploadedMode()) {
+            button.setBackground(TRANSPARENT_BACKGROUND);
         } else {
-            imageView.setImage(defaultImage.get());
-            imageView.setPreserveRatio(false);
-            imageView.setClip(clip);
-            imageView.setEffect(tintEffect);
-
-            imageView.layoutBoundsProperty().addListener((obs, old, bounds) -> {
-                double radius = Math.min(bounds.getWidth(), bounds.getHeight()) / 2;
-                clip.radiusProperty().bind(size.multiply(0.48));
-                clip.setCenterX(bounds.getWidth() / 2);
-                clip.setCenterY(bounds.getHeight() / 2);
-            });
-
-            fitWidth.addListener((obs, oldVal, newVal) -> {
-                if (newVal.doubleValue() > 0) imageView.setFitWidth(newVal.doubleValue());
-            });
-            fitHeight.addListener((obs, oldVal, newVal) -> {
-                if (newVal.doubleValue() > 0) imageView.setFitHeight(newVal.doubleValue());
-            });
-
-            tintColor.addListener((obs, old, newColor) -> applyTint(newColor));
-            applyTint(tintColor.get());
-
-            updateButtonBackground(backgroundColor.get());
+            button.setBackground(normalBackground);
         }
+        renderImage();
         updateStatusLayout();
     }
 
+    private boolean isUploadedMode() {
+        return uploadedImage.get() != null || uploadedImageUrl.get() != null;
+    }
+
+    private boolean isInitialsMode() {
+        return !isUploadedMode() && initials.get() != null && !initials.get().isBlank();
+    }
+
+    // Renders the bitmap of the current mode. The previous one stays shown until it is ready.
+    private void renderImage() {
+        int version = ++renderVersion;
+        renderedHoverImage = null;
+        watchLoading(!isInitialsMode() && imageSource() instanceof Image ? (Image) imageSource() : null);
+        if (isInitialsMode()) {
+            // Drawn on this thread, and cached, so the bitmap is there right away.
+            double scale = renderScale.getValue() != null ? renderScale.getValue().doubleValue() : 1;
+            Font font = initialsFont.get() != null ? initialsFont.get()
+                    : Font.font(Font.getDefault().getFamily(), FontWeight.BOLD, size.get() * 0.4);
+            imageView.setFitWidth(size.get());
+            imageView.setFitHeight(size.get());
+            renderedImage = OFxAvatarRasterizer.renderInitials(initials.get(), font, tintColor.get(), size.get(), scale);
+            imageView.setImage(renderedImage);
+            return;
+        }
+        Object source = imageSource();
+        if (source == null) {
+            renderedImage = null;
+            imageView.setImage(null);
+            return;
+        }
+
+        double width;
+        double height;
+        if (isUploadedMode()) {
+            width = height = size.get();
+        } else {
+            Image image = source instanceof Image ? (Image) source : null;
+            // An image loading in the background has no size yet.
+            width = fitWidth.get() > 0 ? fitWidth.get() : image != null && image.getWidth() > 0 ? image.getWidth() : size.get();
+            height = fitHeight.get() > 0 ? fitHeight.get() : image != null && image.getHeight() > 0 ? image.getHeight() : size.get();
+        }
+        imageView.setFitWidth(width);
+        imageView.setFitHeight(height);
+
+        render(source, null).whenComplete((image, error) -> {
+            if (version != renderVersion) return;
+            if (error != null) {
+                reportError(error);
+                return;
+            }
+            renderedImage = image;
+            if (!isUploadedMode() || !button.isHover()) imageView.setImage(image);
+        });
+    }
+
+    private void watchLoading(Image image) {
+        Image loading = image != null && image.getProgress() < 1 && !image.isError() ? image : null;
+        if (loading == loadingImage) return;
+        if (loadingImage != null) {
+            loadingImage.progressProperty().removeListener(loadingListener);
+            loadingImage.widthProperty().removeListener(loadingListener);
+            loadingImage.heightProperty().removeListener(loadingListener);
+        }
+        loadingImage = loading;
+        if (loading != null) {
+            loading.progressProperty().addListener(loadingListener);
+            loading.widthProperty().addListener(loadingListener);
+            loading.heightProperty().addListener(loadingListener);
+        }
+    }
+
+    // Shows the uploaded image with the hover color over it, rendering it the first time.
+    private void showHoverImage() {
+        if (renderedHoverImage != null) {
+            imageView.setImage(renderedHoverImage);
+            return;
+        }
+        Object source = imageSource();
+        if (source == null) return;
+        int version = renderVersion;
+        render(source, applyAlpha(hoverColor.get(), 0.25)).whenComplete((image, error) -> {
+            if (version != renderVersion || error != null) return;
+            renderedHoverImage = image;
+            if (button.isHover()) imageView.setImage(image);
+        });
+    }
+
+    // Uploaded images fill the whole avatar; the default image is tinted and cut to a slightly smaller circle.
+    private CompletableFuture<Image> render(Object source, Color hoverTint) {
+        double scale = renderScale.getValue() != null ? renderScale.getValue().doubleValue() : 1;
+        if (isUploadedMode()) {
+            return OFxAvatarRasterizer.render(source, size.get(), size.get(), size.get() / 2, hoverTint, scale);
+        }
+        return OFxAvatarRasterizer.render(source, imageView.getFitWidth(), imageView.getFitHeight(),
+                size.get() * 0.48, tintColor.get(), scale);
+    }
+
+    private Object imageSource() {
+        if (isUploadedMode()) return uploadedImageUrl.get() != null ? uploadedImageUrl.get() : uploadedImage.get();
+        return defaultImageUrl.get() != null ? defaultImageUrl.get() : defaultImage.get();
+    }
+
+    private static void reportError(Throwable error) {
+        Thread thread = Thread.currentThread();
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, cause);
+    }
+
     private void updateStatusLayout() {
         double outerRadius = size.get() * 0.20;
         double innerRadius = size.get() * 0.12;
@@ -201,24 +329,8 @@ public class OFxAvatarView extends StackPane {
         statusDot.setCenterY(center - offset);
     }
 
-    private void applyTint(Color color) {
-        if (color == null) {
-            tintEffect.setTopInput(null);
-            return;
-        }
-
-        ColorInput overlay = new ColorInput(0, 0, size.get(), size.get(), color);
-        tintEffect.setMode(BlendMode.SRC_ATOP);
-        tintEffect.setTopInput(overlay);
-
-        size.addListener((obs, oldVal, newVal) -> {
-            overlay.setWidth(newVal.doubleValue());
-            overlay.setHeight(newVal.doubleValue());
-        });
-    }
-
-    private void updateButtonBackground(Color color) {
-        button.setBackground(new Background(new BackgroundFill(color, new CornerRadii(100), Insets.EMPTY)));
+    private static Background circleBackground(Color color) {
+        return new Background(new BackgroundFill(color, new CornerRadii(100), Insets.EMPTY));
     }
 
     private Color applyAlpha(Color baseColor, double alpha) {
@@ -226,17 +338,56 @@ public class OFxAvatarView extends StackPane {
     }
 
     public static Color loadOrGenerateColor() {
-        String saved = PREFS.get(COLOR_PREF_KEY, null);
+        return loadOrGenerateColor(null);
+    }
+
+    /**
+     * Returns the color remembered under a color key, or remembers a new random one.
+     * Reads are served from memory once a key was read, and writes are done in the background.
+     */
+    public static Color loadOrGenerateColor(String colorKey) {
+        OFxPreferenceStore store = getPreferenceStore();
+        String saved = store.get(colorPrefKey(colorKey));
         if (saved != null) {
             try {
                 return Color.web(saved);
             } catch (IllegalArgumentException ignored) {}
         }
         Color generated = Color.hsb(RANDOM.nextDouble() * 360, 0.6, 0.85);
-        PREFS.put(COLOR_PREF_KEY, toHex(generated));
+        store.put(colorPrefKey(colorKey), toHex(generated));
         return generated;
     }
 
+    private static String colorPrefKey(String colorKey) {
+        return colorKey == null ? COLOR_PREF_KEY : COLOR_PREF_KEY + "." + colorKey;
+    }
+
+    /**
+     * Returns the store the background colors are remembered in, by default the Preferences node of this
+     * package behind an {@link OFxWriteBehindPreferenceStore}.
+     */
+    public static synchronized OFxPreferenceStore getPreferenceStore() {
+        if (preferenceStore == null) {
+            preferenceStore = new OFxWriteBehindPreferenceStore(
+                    OFxPreferenceStore.of(Preferences.userNodeForPackage(OFxAvatarView.class)));
+        }
+        return preferenceStore;
+    }
+
+    public static synchronized void setPreferenceStore(OFxPreferenceStore store) {
+        preferenceStore = store;
+    }
+
+    /** Returns the initials of a name, the first letters of its first and last words, e.g. "AL" for "Ada Lovelace". */
+    public static String initialsOf(String name) {
+        String[] words = name == null ? new String[0] : name.trim().split("\\s+");
+        if (words.length == 0 || words[0].isEmpty()) return "";
+        String first = words[0].substring(0, words[0].offsetByCodePoints(0, 1));
+        if (words.length == 1) return first.toUpperCase();
+        String last = words[words.length - 1];
+        return (first + last.substring(0, last.offsetByCodePoints(0, 1))).toUpperCase();
+    }
+
     public static String toHex(Color color) {
         return String.format("#%02X%02X%02X",
                 (int) (color.getRed() * 255),
@@ -268,6 +419,54 @@ public class OFxAvatarView extends StackPane {
         return uploadedImage;
     }
 
+    public String getDefaultImageUrl() {
+        return defaultImageUrl.get();
+    }
+
+    public void setDefaultImageUrl(String value) {
+        defaultImageUrl.set(value);
+    }
+
+    public StringProperty defaultImageUrlProperty() {
+        return defaultImageUrl;
+    }
+
+    public String getUploadedImageUrl() {
+        return uploadedImageUrl.get();
+    }
+
+    public void setUploadedImageUrl(String value) {
+        uploadedImageUrl.set(value);
+    }
+
+    public StringProperty uploadedImageUrlProperty() {
+        return uploadedImageUrl;
+    }
+
+    public String getInitials() {
+        return initials.get();
+    }
+
+    public void setInitials(String value) {
+        initials.set(value);
+    }
+
+    public StringProperty initialsProperty() {
+        return initials;
+    }
+
+    public Font getInitialsFont() {
+        return initialsFont.get();
+    }
+
+    public void setInitialsFont(Font value) {
+        initialsFont.set(value);
+    }
+
+    public ObjectProperty<Font> initialsFontProperty() {
+        return initialsFont;
+    }
+
     public double getSize() {
         return size.get();
     }
@@ -280,13 +479,25 @@ public class OFxAvatarView extends StackPane {
         return size;
     }
 
+    public String getColorKey() {
+        return colorKey.get();
+    }
+
+    public void setColorKey(String value) {
+        colorKey.set(value);
+    }
+
+    public StringProperty colorKeyProperty() {
+        return colorKey;
+    }
+
     public Color getBackgroundColor() {
         return backgroundColor.get();
     }
 
     public void setBackgroundColor(Color color) {
         backgroundColor.set(color);
-        PREFS.put(COLOR_PREF_KEY, toHex(color));
+        getPreferenceStore().put(colorPrefKey(colorKey.get()), toHex(color));
     }
 
     public ObjectProperty<Color> backgroundColorProperty() {
@@ -25,8 +25,10 @@ import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
+import org.onyxfx.graphics.util.OFxImageCache;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -50,12 +52,17 @@ import java.util.List;
  * hover, pressed, focused, and normal background colors. This button also supports
  * configurable corner radius and an optional icon.
  *
+ * <p>The background is set by the button from its state colors, and takes precedence over stylesheet background
+ * rules while the current state has a color. A background set through {@link #setBackground} stays until the next
+ * state or color change.
+ *
  * <p>CSS properties:
  * <ul>
  *   <li>-ofx-normal-color</li>
  *   <li>-ofx-hover-color</li>
  *   <li>-ofx-pressed-color</li>
  *   <li>-ofx-focused-color</li>
+ *   <li>-ofx-corner-radius</li>
  * </ul>
  *
  * <p>This control is designed to be used as part of the {@code onyxfx} library.
@@ -121,8 +128,32 @@ public class OFxButton extends Button {
     // Property for holding an optional icon.
     private final ObjectProperty<Image> icon = new SimpleObjectProperty<>();
 
-    // Property to define the round corner radius.
-    private final DoubleProperty cornerRadius = new SimpleDoubleProperty(10.0);
+    // Source of the icon, loaded through OFxImageCache.
+    private final StringProperty iconUrl = new SimpleStringProperty();
+
+    // Styleable round corner radius, feeding the backgrounds directly so it can be animated without any CSS work.
+    private final StyleableDoubleProperty cornerRadius =
+            new StyleableDoubleProperty(10.0) {
+                @Override
+                protected void invalidated() { updateBackgrounds(); }
+                @Override
+                public Object getBean() { return OFxButton.this; }
+                @Override
+                public String getName() { return "cornerRadius"; }
+                @Override
+                public CssMetaData<OFxButton, Number> getCssMetaData() {
+                    return StyleableProperties.CORNER_RADIUS;
+                }
+            };
+
+    // Backgrounds of the states, null for states without a color. Only rebuilt when a color or the radius changes.
+    private Background normalBackground;
+    private Background hoverBackground;
+    private Background pressedBackground;
+    private Background focusedBackground;
+    // Background of the current state, put back after a CSS pass replaced it.
+    private Background stateBackground;
+    private boolean stateBackgroundReplaced;
 
     /**
      * Creates a new instance of {@code OFxButton} with default styling and behavior.
@@ -132,44 +163,79 @@ public class OFxButton extends Button {
         super();
         getStyleClass().add("ofx-button");
 
-        // Listeners for state changes to update appearance
+        // Listeners for state changes, only picking one of the prebuilt backgrounds
         hoverProperty().addListener((obs, oldVal, newVal) -> updateBackgroundColor());
         armedProperty().addListener((obs, oldVal, newVal) -> updateBackgroundColor());
+        pressedProperty().addListener((obs, oldVal, newVal) -> updateBackgroundColor());
+        focusedProperty().addListener((obs, oldVal, newVal) -> updateBackgroundColor());
+
+        // Listeners for property changes, rebuilding the backgrounds
+        normalColorProperty().addListener((obs, old, val) -> updateBackgrounds());
+        hoverColorProperty().addListener((obs, old, val) -> updateBackgrounds());
+        pressedColorProperty().addListener((obs, old, val) -> updateBackgrounds());
+        focusedColorProperty().addListener((obs, old, val) -> updateBackgrounds());
+
+        // The style origin is only updated after the listeners ran, so the check waits for the layout pass.
+        backgroundProperty().addListener(obs -> {
+            if (getBackground() != stateBackground && stateBackground != null) {
+                stateBackgroundReplaced = true;
+                requestLayout();
+            }
+        });
 
-        // Listeners for property changes
-        normalColorProperty().addListener((obs, old, val) -> updateBackgroundColor());
-        hoverColorProperty().addListener((obs, old, val) -> updateBackgroundColor());
-        pressedColorProperty().addListener((obs, old, val) -> updateBackgroundColor());
-        focusedColorProperty().addListener((obs, old, val) -> updateBackgroundColor());
+        updateBackgrounds();
+        initListeners();
+    }
 
+    /**
+     * Rebuilds the background of every state from its color and the corner radius.
+     */
+    private void updateBackgrounds() {
+        CornerRadii radii = new CornerRadii(getRoundRadius());
+        normalBackground = createBackground(getaNormalColor(), radii);
+        hoverBackground = createBackground(getbHoverColor(), radii);
+        pressedBackground = createBackground(getcPressedColor(), radii);
+        focusedBackground = createBackground(getdFocusedColor(), radii);
         updateBackgroundColor();
-        initListeners();
-        updateCornerRadiusStyle(getRoundRadius());
+    }
+
+    private static Background createBackground(Paint paint, CornerRadii radii) {
+        return paint == null ? null : new Background(new BackgroundFill(paint, radii, Insets.EMPTY));
     }
 
     /**
-     * Updates the background color based on the current button state.
+     * Shows the background of the current button state.
      */
     private void updateBackgroundColor() {
-        Paint paint;
-
-        if (isPressed() && getcPressedColor() != null) {
-            paint = getcPressedColor();
-        } else if (isHover() && getbHoverColor() != null) {
-            paint = getbHoverColor();
-        } else if (isFocused() && getdFocusedColor() != null) {
-            paint = getdFocusedColor();
+        Background background;
+
+        if (isPressed() && pressedBackground != null) {
+            background = pressedBackground;
+        } else if (isHover() && hoverBackground != null) {
+            background = hoverBackground;
+        } else if (isFocused() && focusedBackground != null) {
+            background = focusedBackground;
         } else {
-            paint = getaNormalColor();
+            background = normalBackground;
         }
 
-        if (paint instanceof Color) {
-            setBackground(new Background(new BackgroundFill(
-                    (Color) paint,
-                    getBackground() != null ? getBackground().getFills().get(0).getRadii() : null,
-                    Insets.EMPTY
-            )));
+        stateBackground = background;
+        stateBackgroundReplaced = false;
+        setBackground(background);
+    }
+
+    /**
+     * Puts the background of the current state back if a stylesheet replaced it,
+     * which happens in the CSS pass right before this one.
+     */
+    @Override
+    protected void layoutChildren() {
+        if (stateBackgroundReplaced) {
+            stateBackgroundReplaced = false;
+            StyleOrigin origin = ((StyleableProperty<?>) backgroundProperty()).getStyleOrigin();
+            if (origin != StyleOrigin.USER && stateBackground != null) setBackground(stateBackground);
         }
+        super.layoutChildren();
     }
 
     /** Sets the icon image displayed inside the button. */
@@ -187,6 +253,21 @@ public class OFxButton extends Button {
         return icon;
     }
 
+    /** Sets the source of the icon, a URL or a key registered in {@link OFxImageCache}. */
+    public void setIconUrl(String url) {
+        this.iconUrl.set(url);
+    }
+
+    /** @return the source of the icon. */
+    public String getIconUrl() {
+        return iconUrl.get();
+    }
+
+    /** @return the icon source property for binding. */
+    public StringProperty iconUrlProperty() {
+        return iconUrl;
+    }
+
     /** Sets the round corner radius of the button. */
     public void setRoundRadius(double radiusValue) {
         this.cornerRadius.set(radiusValue);
@@ -197,8 +278,8 @@ public class OFxButton extends Button {
         return cornerRadius.get();
     }
 
-    /** @return the corner radius property for binding. */
-    public DoubleProperty cornerRadiusProperty() {
+    /** @return the styleable corner radius property, for binding and animation. */
+    public StyleableDoubleProperty cornerRadiusProperty() {
         return cornerRadius;
     }
 
@@ -253,7 +334,7 @@ public class OFxButton extends Button {
         return focusedColor;
     }
 
-    // Initialize listeners for dynamic behavior (icon, corner radius)
+    // Initialize listeners for dynamic behavior (icon)
     private void initListeners() {
         icon.addListener((obs, old, img) -> {
             if (img != null) {
@@ -261,14 +342,7 @@ public class OFxButton extends Button {
             }
         });
 
-        cornerRadius.addListener((obs, old, val) -> {
-            updateCornerRadiusStyle(val.doubleValue());
-        });
-    }
-
-    // Applies the CSS style for corner radius.
-    private void updateCornerRadiusStyle(double roundCornerRadius) {
-        setStyle("-fx-background-radius: " + roundCornerRadius + ";");
+        OFxImageCache.follow(iconUrl, icon, 0, 0);
     }
 
     // Helper to convert a Color object to a CSS rgba() string.
@@ -288,7 +362,8 @@ public class OFxButton extends Button {
                 ((StyleableProperty<?>) new OFxButton().normalColor).getCssMetaData(),
                 ((StyleableProperty<?>) new OFxButton().hoverColor).getCssMetaData(),
                 ((StyleableProperty<?>) new OFxButton().pressedColor).getCssMetaData(),
-                ((StyleableProperty<?>) new OFxButton().focusedColor).getCssMetaData()
+                ((StyleableProperty<?>) new OFxButton().focusedColor).getCssMetaData(),
+                ((StyleableProperty<?>) new OFxButton().cornerRadius).getCssMetaData()
         ));
         CSS_META_DATA_LIST = Collections.unmodifiableList(list);
     }
@@ -302,16 +377,6 @@ public class OFxButton extends Button {
         return CSS_META_DATA_LIST;
     }
 
-    /**
-     * Overrides layoutChildren to ensure background color is updated
-     * during layout passes.
-     */
-    @Override
-    protected void layoutChildren() {
-        super.layoutChildren();
-        updateBackgroundColor();
-    }
-
     /**
      * Internal class holding the custom CSS metadata for {@code OFxButton}.
      */
@@ -356,6 +421,16 @@ public class OFxButton extends Button {
                     }
                 };
 
+        private static final CssMetaData<OFxButton, Number> CORNER_RADIUS =
+                new CssMetaData<>("-ofx-corner-radius", StyleConverter.getSizeConverter(), 10.0) {
+                    @Override public boolean isSettable(OFxButton node) {
+                        return !node.cornerRadius.isBound();
+                    }
+                    @Override public StyleableProperty<Number> getStyleableProperty(OFxButton node) {
+                        return node.cornerRadiusProperty();
+                    }
+                };
+
         private static final List<CssMetaData<? extends Styleable, ?>> STYLEABLES;
         static {
             final List<CssMetaData<? extends Styleable, ?>> styleables =
@@ -364,6 +439,7 @@ public class OFxButton extends Button {
             styleables.add(HOVER_COLOR);
             styleables.add(PRESSED_COLOR);
             styleables.add(FOCUSED_COLOR);
+            styleables.add(CORNER_RADIUS);
             STYLEABLES = Collections.unmodifiableList(styleables);
         }
     }
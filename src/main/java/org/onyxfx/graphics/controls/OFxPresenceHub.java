@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.controls;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Scene;
+import javafx.scene.paint.Color;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * Presence of users, keyed by user id, shown on the status dots of the {@link OFxAvatarView avatars} bound to them.
+ * - {@link #publish(String, Status)} can be called from any thread without locking, as often as the feed delivers
+ * - Changes of a user are conflated, only the latest one is applied
+ * - Changes are applied on the FX thread once per pulse, however many arrived since the last one
+ * - Avatars that aren't in a scene are skipped, and catch up once they are added to one
+ *
+ * Avatars are bound and unbound on the FX thread; the hub only holds weak references to them.
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+public class OFxPresenceHub {
+
+    public enum Status {
+        ONLINE, AWAY, BUSY, OFFLINE
+    }
+
+    private static final Object BINDING_KEY = new Object();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Users changed since the last pulse, each queued once.
+    private final Queue<Entry> dirty = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    // Colors of the status dot, OFFLINE hides it. Only used on the FX thread.
+    private final Map<Status, Color> statusColors = new EnumMap<>(Map.of(
+            Status.ONLINE, Color.LIMEGREEN,
+            Status.AWAY, Color.ORANGE,
+            Status.BUSY, Color.RED));
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            applyChanges();
+        }
+    };
+
+    /** Records the status of a user. Can be called from any thread. */
+    public void publish(String userId, Status status) {
+        Objects.requireNonNull(status, "status");
+        Entry entry = entries.computeIfAbsent(userId, id -> new Entry());
+        entry.status = status;
+        if (entry.dirty.compareAndSet(false, true)) {
+            dirty.offer(entry);
+            if (scheduled.compareAndSet(false, true)) Platform.runLater(pulse::start);
+        }
+    }
+
+    // Returns the latest status published for a user, or null.
+    public Status getStatus(String userId) {
+        Entry entry = entries.get(userId);
+        return entry != null ? entry.status : null;
+    }
+
+    /** Shows the status of a user on an avatar, in place of any user it was bound to. FX thread only. */
+    public void bind(OFxAvatarView avatar, String userId) {
+        Object previous = avatar.getProperties().get(BINDING_KEY);
+        if (previous instanceof Binding) ((Binding) previous).hub.unbind(avatar);
+        Entry entry = entries.computeIfAbsent(userId, id -> new Entry());
+        ChangeListener<Scene> sceneListener = (obs, oldScene, newScene) -> {
+            if (newScene != null) apply(avatar, entry.status);
+        };
+        avatar.sceneProperty().addListener(sceneListener);
+        avatar.getProperties().put(BINDING_KEY, new Binding(this, entry, sceneListener));
+        entry.avatars.add(new WeakReference<>(avatar));
+        if (avatar.getScene() != null) apply(avatar, entry.status);
+    }
+
+    /** Stops showing presence on an avatar, leaving its status dot as it is. FX thread only. */
+    public void unbind(OFxAvatarView avatar) {
+        Object value = avatar.getProperties().get(BINDING_KEY);
+        if (!(value instanceof Binding) || ((Binding) value).hub != this) return;
+        Binding binding = (Binding) value;
+        avatar.getProperties().remove(BINDING_KEY);
+        avatar.sceneProperty().removeListener(binding.sceneListener);
+        binding.entry.avatars.removeIf(ref -> ref.get() == null || ref.get() == avatar);
+    }
+
+    public Color getStatusColor(Status status) {
+        return statusColors.get(status);
+    }
+
+    /** Sets the status dot color of a status, null hiding the dot. FX thread only. */
+    public void setStatusColor(Status status, Color color) {
+        if (color == null) statusColors.remove(status);
+        else statusColors.put(status, color);
+    }
+
+    // Applies the latest status of every user changed since the last pulse, then stops pulsing once idle.
+    private void applyChanges() {
+        Entry entry;
+        while ((entry = dirty.poll()) != null) {
+            // Cleared before reading, so a status published meanwhile queues the entry again.
+            entry.dirty.set(false);
+            Status status = entry.status;
+            for (Iterator<WeakReference<OFxAvatarView>> it = entry.avatars.iterator(); it.hasNext(); ) {
+                OFxAvatarView avatar = it.next().get();
+                if (avatar == null) it.remove();
+                else if (avatar.getScene() != null) apply(avatar, status);
+            }
+        }
+        pulse.stop();
+        scheduled.set(false);
+        if (!dirty.isEmpty() && scheduled.compareAndSet(false, true)) pulse.start();
+    }
+
+    private void apply(OFxAvatarView avatar, Status status) {
+        if (status == null) return;
+        Color color = statusColors.get(status);
+        avatar.setStatusVisible(color != null);
+        if (color != null) avatar.setStatusColor(color);
+    }
+
+    // Presence of one user. The status is written by any thread, the avatars are only used on the FX thread.
+    private static final class Entry {
+        private volatile Status status;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final List<WeakReference<OFxAvatarView>> avatars = new ArrayList<>(1);
+    }
+
+    // Kept in the properties of a bound avatar.
+    private static final class Binding {
+        private final OFxPresenceHub hub;
+        private final Entry entry;
+        private final ChangeListener<Scene> sceneListener;
+
+        Binding(OFxPresenceHub hub, Entry entry, ChangeListener<Scene> sceneListener) {
+            this.hub = hub;
+            this.entry = entry;
+            this.sceneListener = sceneListener;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.onyxfx.graphics.layout;
+
+import javafx.beans.property.*;
+
+/**
+ * @ONYX-FX
+ *
+ * Descriptor of a section shown by an {@link OFxAccordionView}.
+ * The expanded state of a section lives here rather than in nodes, so the view
+ * only needs nodes for the sections that are currently on screen.
+ */
+public class OFxAccordionSection {
+
+    private final StringProperty title = new SimpleStringProperty(this, "title", "Title");
+    private final BooleanProperty expanded = new SimpleBooleanProperty(this, "expanded", false);
+    private final ObjectProperty<Object> value = new SimpleObjectProperty<>(this, "value");
+
+    public OFxAccordionSection() {
+    }
+
+    public OFxAccordionSection(String title) {
+        setTitle(title);
+    }
+
+    public OFxAccordionSection(String title, Object value) {
+        setTitle(title);
+        setValue(value);
+    }
+
+    // Properties
+    public String getTitle() { return title.get(); }
+    public void setTitle(String value) { title.set(value); }
+    public StringProperty titleProperty() { return title; }
+
+    public boolean isExpanded() { return expanded.get(); }
+    public void setExpanded(boolean value) { expanded.set(value); }
+    public BooleanProperty expandedProperty() { return expanded; }
+
+    // Application data the body factory builds the body from.
+    public Object getValue() { return value.get(); }
+    public void setValue(Object data) { value.set(data); }
+    public ObjectProperty<Object> valueProperty() { return value; }
+}
@@ -0,0 +1,220 @@
+package org.onyxfx.graphics.layout;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
+import javafx.beans.property.*;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.Label;
+import javafx.scene.control.Skin;
+import javafx.scene.control.skin.CellSkinBase;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+
+import java.util.function.Function;
+
+/**
+ * @ONYX-FX
+ *
+ * A virtualized list of expandable sections, for the cases where thousands of
+ * {@link OFxExpandablePane} in a ScrollPane get too slow.
+ *
+ * The view is driven by a list of {@link OFxAccordionSection} descriptors. Header and body
+ * nodes only exist for the sections inside the viewport; they are recycled as the user scrolls,
+ * and the expanded state of each section is kept in its descriptor. Bodies are built by the
+ * {@link #bodyFactoryProperty() bodyFactory} when an expanded section comes into view.
+ */
+public class OFxAccordionView extends StackPane {
+
+    private final ObservableList<OFxAccordionSection> sections = FXCollections.observableArrayList();
+    private final ObjectProperty<Function<OFxAccordionSection, Node>> bodyFactory = new SimpleObjectProperty<>(this, "bodyFactory");
+    private final ObjectProperty<Image> arrowImage = new SimpleObjectProperty<>(this, "arrowImage");
+    private final DoubleProperty arrowIconWidth = new SimpleDoubleProperty(this, "arrowIconWidth", 10);
+    private final DoubleProperty arrowIconHeight = new SimpleDoubleProperty(this, "arrowIconHeight", 10);
+
+    private final SectionFlow flow = new SectionFlow();
+
+    // Set while every section is updated at once, so the cells leave their bodies to the single rebuild that follows.
+    private boolean bulkUpdating;
+
+    public OFxAccordionView() {
+        getStyleClass().add("ofx-accordion-view");
+
+        flow.setCellFactory(f -> new SectionCell());
+        sections.addListener((ListChangeListener<OFxAccordionSection>) change -> {
+            flow.setCellCount(sections.size());
+            flow.rebuild();
+        });
+        bodyFactory.addListener((obs, oldVal, newVal) -> flow.recreate());
+
+        getChildren().add(flow);
+    }
+
+    /**
+     * Expands or collapses every section at once. Only the descriptors are updated,
+     * the visible rows are then rebuilt in a single layout pass.
+     */
+    public void setAllExpanded(boolean value) {
+        bulkUpdating = true;
+        try {
+            for (OFxAccordionSection section : sections) section.setExpanded(value);
+        } finally {
+            bulkUpdating = false;
+        }
+        flow.recreate();
+    }
+
+    // Scrolls the view so the section at the given index is visible.
+    public void scrollTo(int index) {
+        flow.scrollTo(index);
+    }
+
+    // Properties
+    public ObservableList<OFxAccordionSection> getSections() { return sections; }
+
+    public Function<OFxAccordionSection, Node> getBodyFactory() { return bodyFactory.get(); }
+    public void setBodyFactory(Function<OFxAccordionSection, Node> value) { bodyFactory.set(value); }
+    public ObjectProperty<Function<OFxAccordionSection, Node>> bodyFactoryProperty() { return bodyFactory; }
+
+    public Image getArrowImage() { return arrowImage.get(); }
+    public void setArrowImage(Image image) { arrowImage.set(image); }
+    public ObjectProperty<Image> arrowImageProperty() { return arrowImage; }
+
+    public double getArrowIconWidth() { return arrowIconWidth.get(); }
+    public void setArrowIconWidth(double width) { arrowIconWidth.set(width); }
+    public DoubleProperty arrowIconWidthProperty() { return arrowIconWidth; }
+
+    public double getArrowIconHeight() { return arrowIconHeight.get(); }
+    public void setArrowIconHeight(double height) { arrowIconHeight.set(height); }
+    public DoubleProperty arrowIconHeightProperty() { return arrowIconHeight; }
+
+    // VirtualFlow exposing the protected calls the view needs.
+    private static final class SectionFlow extends VirtualFlow<SectionCell> {
+
+        // Updates the visible cells and lays them out again, their heights may have changed.
+        void rebuild() {
+            rebuildCells();
+        }
+
+        // Throws the cells and their size estimates away, used when many rows change at once.
+        void recreate() {
+            recreateCells();
+        }
+    }
+
+    // A recycled row: the header of a section, and its body when it is expanded.
+    private final class SectionCell extends IndexedCell<OFxAccordionSection> {
+
+        private final Label titleLabel = new Label();
+        private final ImageView arrowIcon = new ImageView();
+        private final HBox headerBox = new HBox();
+        private final VBox container = new VBox();
+
+        // Rebuilds the body when the expanded state of the shown section changes, the row height changes with it.
+        private final InvalidationListener expandedListener = obs -> {
+            if (bulkUpdating) return;
+            updateBody();
+            flow.rebuild();
+        };
+        private final WeakInvalidationListener weakExpandedListener = new WeakInvalidationListener(expandedListener);
+
+        private OFxAccordionSection section;
+        private OFxAccordionSection bodySection;
+        private Node body;
+
+        SectionCell() {
+            getStyleClass().add("expandable-list-section");
+            setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+
+            titleLabel.getStyleClass().add("title-label");
+            titleLabel.setMaxWidth(Double.MAX_VALUE);
+
+            arrowIcon.getStyleClass().add("arrow-icon");
+            arrowIcon.imageProperty().bind(arrowImage);
+            arrowIcon.fitWidthProperty().bind(arrowIconWidth);
+            arrowIcon.fitHeightProperty().bind(arrowIconHeight);
+            arrowIcon.setPreserveRatio(true);
+            arrowIcon.setSmooth(true);
+
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            headerBox.getStyleClass().add("title");
+            headerBox.getChildren().addAll(titleLabel, spacer, arrowIcon);
+            headerBox.setAlignment(Pos.CENTER_LEFT);
+            headerBox.setPadding(new Insets(6, 8, 6, 8));
+            headerBox.setOnMouseClicked(e -> {
+                if (section != null) section.setExpanded(!section.isExpanded());
+            });
+
+            container.getChildren().add(headerBox);
+            setGraphic(container);
+        }
+
+        // IndexedCell has no skin of its own, this one shows the graphic.
+        @Override
+        protected Skin<?> createDefaultSkin() {
+            return new CellSkinBase<>(this);
+        }
+
+        @Override
+        public void updateIndex(int i) {
+            super.updateIndex(i);
+            OFxAccordionSection item = i >= 0 && i < sections.size() ? sections.get(i) : null;
+            updateItem(item, item == null);
+        }
+
+        @Override
+        protected void updateItem(OFxAccordionSection item, boolean empty) {
+            super.updateItem(item, empty);
+            if (item == section) {
+                updateBody();
+                return;
+            }
+
+            if (section != null) section.expandedProperty().removeListener(weakExpandedListener);
+            titleLabel.textProperty().unbind();
+            section = item;
+            if (section != null) {
+                section.expandedProperty().addListener(weakExpandedListener);
+                titleLabel.textProperty().bind(section.titleProperty());
+            } else {
+                titleLabel.setText(null);
+            }
+            container.setVisible(section != null);
+            updateBody();
+        }
+
+        // Shows the body of the section when it is expanded, building it only if this cell doesn't hold it already.
+        private void updateBody() {
+            boolean expanded = section != null && section.isExpanded();
+            arrowIcon.setRotate(expanded ? 90 : 0);
+
+            if (expanded && (body == null || bodySection != section)) {
+                if (body != null) container.getChildren().remove(body);
+                Function<OFxAccordionSection, Node> factory = getBodyFactory();
+                body = factory != null ? factory.apply(section) : null;
+                bodySection = section;
+                if (body != null) {
+                    if (!body.getStyleClass().contains("content")) body.getStyleClass().add("content");
+                    container.getChildren().add(body);
+                }
+            } else if (!expanded && body != null) {
+                container.getChildren().remove(body);
+                body = null;
+                bodySection = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package org.onyxfx.graphics.layout;
+
+import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.*;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.util.Duration;
+
+import java.util.*;
+
+/**
+ * @ONYX-FX
+ *
+ * Filters a tree of {@link OFxExpandablePane} by the text typed by the user.
+ * - Keeps an index of the titles and {@link OFxExpandablePane#searchTextProperty() search texts},
+ *   updated pane by pane when they change
+ * - PREFIX mode matches the words of a section, SUBSTRING mode any part of its text
+ * - Debounces keystrokes, then expands the ancestors of the matches and hides the other
+ *   sections in a single batch, only touching the panes whose state changes
+ * - Reports the time spent on each query through {@link #lastQueryTimeProperty()}
+ */
+public class OFxExpandableFilter {
+
+    public enum Mode { PREFIX, SUBSTRING }
+
+    // Length of the grams indexed for substring lookups.
+    private static final int GRAM = 3;
+
+    private final StringProperty query = new SimpleStringProperty(this, "query", "");
+    private final ObjectProperty<Mode> mode = new SimpleObjectProperty<>(this, "mode", Mode.SUBSTRING);
+    private final ObjectProperty<Duration> debounce = new SimpleObjectProperty<>(this, "debounce", Duration.millis(150));
+    private final ReadOnlyObjectWrapper<Duration> lastQueryTime = new ReadOnlyObjectWrapper<>(this, "lastQueryTime", Duration.ZERO);
+    private final ReadOnlyIntegerWrapper matchCount = new ReadOnlyIntegerWrapper(this, "matchCount", 0);
+
+    // Indexed text of every pane, lower case.
+    private final Map<OFxExpandablePane, String> texts = new LinkedHashMap<>();
+    // Words of the indexed texts, sorted for prefix lookups.
+    private final TreeMap<String, Set<OFxExpandablePane>> words = new TreeMap<>();
+    // Every gram of the indexed texts, for substring lookups.
+    private final Map<String, Set<OFxExpandablePane>> grams = new HashMap<>();
+    // Listener re-indexing a pane when its title or search text changes.
+    private final Map<OFxExpandablePane, InvalidationListener> textListeners = new HashMap<>();
+
+    // Panes hidden by the current query, and panes expanded to reveal a match.
+    private final Set<OFxExpandablePane> hidden = new HashSet<>();
+    private final Set<OFxExpandablePane> expandedByFilter = new HashSet<>();
+
+    private final PauseTransition debounceTimer = new PauseTransition();
+
+    public OFxExpandableFilter() {
+        debounceTimer.setOnFinished(e -> apply());
+        query.addListener((obs, oldVal, newVal) -> {
+            Duration delay = getDebounce();
+            if (delay == null || delay.lessThanOrEqualTo(Duration.ZERO)) {
+                apply();
+            } else {
+                debounceTimer.setDuration(delay);
+                debounceTimer.playFromStart();
+            }
+        });
+        mode.addListener((obs, oldVal, newVal) -> apply());
+    }
+
+    // Indexes every pane found under the given node, the node included.
+    public void addTree(Node root) {
+        if (root instanceof OFxExpandablePane) {
+            OFxExpandablePane pane = (OFxExpandablePane) root;
+            addPane(pane);
+            // The content is only in the scene graph once the pane has its skin.
+            for (Node child : pane.getContent()) addTree(child);
+        } else if (root instanceof Parent) {
+            for (Node child : ((Parent) root).getChildrenUnmodifiable()) addTree(child);
+        }
+    }
+
+    public void addPane(OFxExpandablePane pane) {
+        if (textListeners.containsKey(pane)) return;
+        InvalidationListener listener = obs -> index(pane);
+        textListeners.put(pane, listener);
+        pane.textProperty().addListener(listener);
+        pane.searchTextProperty().addListener(listener);
+        index(pane);
+    }
+
+    public void removePane(OFxExpandablePane pane) {
+        InvalidationListener listener = textListeners.remove(pane);
+        if (listener == null) return;
+        pane.textProperty().removeListener(listener);
+        pane.searchTextProperty().removeListener(listener);
+        unindex(pane);
+        texts.remove(pane);
+        if (hidden.remove(pane)) pane.setFilteredOut(false);
+        expandedByFilter.remove(pane);
+    }
+
+    // Runs the current query right away, without waiting for the debounce delay.
+    public void apply() {
+        debounceTimer.stop();
+        long start = System.nanoTime();
+
+        String text = getQuery() == null ? "" : getQuery().trim().toLowerCase(Locale.ROOT);
+        Set<OFxExpandablePane> matches = text.isEmpty() ? null : find(text);
+
+        // Panes that stay shown: the matches and their ancestors, which are also expanded.
+        Set<OFxExpandablePane> shown = new HashSet<>();
+        Set<OFxExpandablePane> toExpand = new HashSet<>();
+        if (matches != null) {
+            for (OFxExpandablePane match : matches) {
+                shown.add(match);
+                for (Node node = OFxExpandablePane.parentOf(match); node != null; node = OFxExpandablePane.parentOf(node)) {
+                    if (!(node instanceof OFxExpandablePane)) continue;
+                    OFxExpandablePane ancestor = (OFxExpandablePane) node;
+                    // The rest of the chain was already walked from another match.
+                    if (!toExpand.add(ancestor)) break;
+                    shown.add(ancestor);
+                }
+            }
+        }
+
+        // Only the panes whose state changes are touched.
+        for (Iterator<OFxExpandablePane> it = hidden.iterator(); it.hasNext(); ) {
+            OFxExpandablePane pane = it.next();
+            if (matches == null || shown.contains(pane)) {
+                pane.setFilteredOut(false);
+                it.remove();
+            }
+        }
+        for (Iterator<OFxExpandablePane> it = expandedByFilter.iterator(); it.hasNext(); ) {
+            OFxExpandablePane pane = it.next();
+            if (!toExpand.contains(pane)) {
+                pane.setExpanded(false);
+                it.remove();
+            }
+        }
+        if (matches != null) {
+            for (OFxExpandablePane pane : texts.keySet()) {
+                if (!shown.contains(pane) && hidden.add(pane)) pane.setFilteredOut(true);
+            }
+            for (OFxExpandablePane pane : toExpand) {
+                if (!pane.isExpanded()) {
+                    pane.setExpanded(true);
+                    expandedByFilter.add(pane);
+                }
+            }
+        }
+
+        matchCount.set(matches == null ? texts.size() : matches.size());
+        lastQueryTime.set(Duration.millis((System.nanoTime() - start) / 1_000_000.0));
+    }
+
+    // Looks the panes matching a lower case query up in the index.
+    private Set<OFxExpandablePane> find(String text) {
+        Set<OFxExpandablePane> result = null;
+        if (getMode() == Mode.PREFIX) {
+            // Every word of the query has to start a word of the section.
+            for (String token : tokenize(text)) {
+                Set<OFxExpandablePane> found = new HashSet<>();
+                for (Set<OFxExpandablePane> panes : words.subMap(token, token + Character.MAX_VALUE).values()) {
+                    found.addAll(panes);
+                }
+                result = result == null ? found : retain(result, found);
+            }
+            return result == null ? new HashSet<>() : result;
+        }
+
+        if (text.length() < GRAM) {
+            // Too short for the gram index, the texts are scanned.
+            result = new HashSet<>();
+            for (Map.Entry<OFxExpandablePane, String> entry : texts.entrySet()) {
+                if (entry.getValue().contains(text)) result.add(entry.getKey());
+            }
+            return result;
+        }
+        // Candidates hold every gram of the query, they are then checked against the full text.
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            Set<OFxExpandablePane> panes = grams.get(text.substring(i, i + GRAM));
+            if (panes == null) return new HashSet<>();
+            result = result == null ? new HashSet<>(panes) : retain(result, panes);
+            if (result.isEmpty()) return result;
+        }
+        result.removeIf(pane -> !texts.get(pane).contains(text));
+        return result;
+    }
+
+    private static Set<OFxExpandablePane> retain(Set<OFxExpandablePane> result, Set<OFxExpandablePane> other) {
+        result.retainAll(other);
+        return result;
+    }
+
+    private void index(OFxExpandablePane pane) {
+        unindex(pane);
+        String title = pane.getText() == null ? "" : pane.getText();
+        String body = pane.getSearchText() == null ? "" : pane.getSearchText();
+        String text = (title + "\n" + body).toLowerCase(Locale.ROOT);
+        texts.put(pane, text);
+
+        for (String word : tokenize(text)) {
+            words.computeIfAbsent(word, key -> new HashSet<>()).add(pane);
+        }
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.computeIfAbsent(text.substring(i, i + GRAM), key -> new HashSet<>()).add(pane);
+        }
+    }
+
+    private void unindex(OFxExpandablePane pane) {
+        String text = texts.get(pane);
+        if (text == null) return;
+        for (String word : tokenize(text)) {
+            Set<OFxExpandablePane> panes = words.get(word);
+            if (panes != null && panes.remove(pane) && panes.isEmpty()) words.remove(word);
+        }
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM);
+            Set<OFxExpandablePane> panes = grams.get(gram);
+            if (panes != null && panes.remove(pane) && panes.isEmpty()) grams.remove(gram);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) start = i;
+            else if (!letter && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Properties
+    public String getQuery() { return query.get(); }
+    public void setQuery(String value) { query.set(value); }
+    public StringProperty queryProperty() { return query; }
+
+    public Mode getMode() { return mode.get(); }
+    public void setMode(Mode value) { mode.set(value); }
+    public ObjectProperty<Mode> modeProperty() { return mode; }
+
+    public Duration getDebounce() { return debounce.get(); }
+    public void setDebounce(Duration value) { debounce.set(value); }
+    public ObjectProperty<Duration> debounceProperty() { return debounce; }
+
+    // Time spent looking up and applying the last query.
+    public Duration getLastQueryTime() { return lastQueryTime.get(); }
+    public ReadOnlyObjectProperty<Duration> lastQueryTimeProperty() { return lastQueryTime.getReadOnlyProperty(); }
+
+    // Number of panes matching the last query, every indexed pane when the query is empty.
+    public int getMatchCount() { return matchCount.get(); }
+    public ReadOnlyIntegerProperty matchCountProperty() { return matchCount.getReadOnlyProperty(); }
+}
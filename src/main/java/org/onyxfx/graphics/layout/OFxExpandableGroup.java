@@ -0,0 +1,107 @@
+package org.onyxfx.graphics.layout;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * @ONYX-FX
+ *
+ * Coordinates a set of {@link OFxExpandablePane}.
+ * - expandAll() / collapseAll() toggle every pane in one go, within a single pulse
+ * - exclusive (accordion) mode keeps at most one pane of the group expanded
+ *
+ * Arrow animations are only played for panes that are on screen, the others are rotated directly.
+ */
+public class OFxExpandableGroup {
+
+    private final ObservableList<OFxExpandablePane> panes = FXCollections.observableArrayList();
+    private final BooleanProperty exclusive = new SimpleBooleanProperty(this, "exclusive", false);
+
+    // The expanded pane in exclusive mode, so expanding another one only collapses this one.
+    private OFxExpandablePane expandedPane;
+    // Set while the group toggles panes itself, so their listener doesn't react to it.
+    private boolean updating;
+
+    private final ChangeListener<Boolean> expandedListener = (obs, oldVal, newVal) -> {
+        if (updating || !newVal || !isExclusive()) return;
+        OFxExpandablePane pane = (OFxExpandablePane) ((BooleanProperty) obs).getBean();
+        OFxExpandablePane previous = expandedPane;
+        expandedPane = pane;
+        if (previous != null && previous != pane) previous.setExpanded(false);
+    };
+
+    public OFxExpandableGroup() {
+        panes.addListener((ListChangeListener<OFxExpandablePane>) change -> {
+            while (change.next()) {
+                for (OFxExpandablePane pane : change.getRemoved()) {
+                    pane.expandedProperty().removeListener(expandedListener);
+                    if (pane == expandedPane) expandedPane = null;
+                }
+                for (OFxExpandablePane pane : change.getAddedSubList()) {
+                    pane.expandedProperty().addListener(expandedListener);
+                }
+            }
+            if (isExclusive()) enforceExclusive();
+        });
+        exclusive.addListener((obs, oldVal, newVal) -> {
+            if (newVal) enforceExclusive();
+            else expandedPane = null;
+        });
+    }
+
+    public OFxExpandableGroup(OFxExpandablePane... panes) {
+        this();
+        this.panes.addAll(panes);
+    }
+
+    // Expands every pane, or only the first one in exclusive mode.
+    public void expandAll() {
+        if (isExclusive()) {
+            if (!panes.isEmpty()) panes.get(0).setExpanded(true);
+            return;
+        }
+        setAllExpanded(true);
+    }
+
+    public void collapseAll() {
+        setAllExpanded(false);
+        expandedPane = null;
+    }
+
+    private void setAllExpanded(boolean value) {
+        updating = true;
+        try {
+            for (OFxExpandablePane pane : panes) {
+                if (pane.isExpanded() != value) pane.setExpanded(value);
+            }
+        } finally {
+            updating = false;
+        }
+    }
+
+    // Keeps the first expanded pane and collapses the others.
+    private void enforceExclusive() {
+        updating = true;
+        try {
+            expandedPane = null;
+            for (OFxExpandablePane pane : panes) {
+                if (!pane.isExpanded()) continue;
+                if (expandedPane == null) expandedPane = pane;
+                else pane.setExpanded(false);
+            }
+        } finally {
+            updating = false;
+        }
+    }
+
+    // Properties
+    public ObservableList<OFxExpandablePane> getPanes() { return panes; }
+
+    public boolean isExclusive() { return exclusive.get(); }
+    public void setExclusive(boolean value) { exclusive.set(value); }
+    public BooleanProperty exclusiveProperty() { return exclusive; }
+}
@@ -1,50 +1,77 @@
 package org.onyxfx.graphics.layout;
 
-import javafx.animation.RotateTransition;
-import javafx.application.Platform;
-import javafx.beans.binding.Bindings;
+import javafx.animation.PauseTransition;
+import javafx.beans.DefaultProperty;
 import javafx.beans.property.*;
+import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.css.PseudoClass;
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
 import javafx.scene.Node;
-import javafx.scene.control.Label;
-import javafx.scene.effect.Blend;
-import javafx.scene.effect.BlendMode;
-import javafx.scene.effect.ColorInput;
+import javafx.scene.Parent;
+import javafx.scene.control.Control;
+import javafx.scene.control.Skin;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
-import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.util.Duration;
+import org.onyxfx.graphics.util.OFxImageCache;
+import org.onyxfx.graphics.util.OFxMemoryMonitor;
 
-import java.io.File;
-import java.net.URI;
+import java.util.function.Supplier;
 
-public class OFxExpandablePane extends VBox {
+/**
+ * Section with a clickable title that shows or hides its content.
+ * The header is drawn by {@link OFxExpandablePaneSkin} with a text, an arrow and an underline; the content
+ * is only laid out while the pane is expanded.
+ */
+@DefaultProperty("content")
+public class OFxExpandablePane extends Control {
 
     private static final PseudoClass UNDERLINE_VISIBLE = PseudoClass.getPseudoClass("underline-visible");
+    // Key under which a content node keeps the pane it belongs to.
+    private static final Object OWNER_PANE_KEY = new Object();
 
     private final BooleanProperty underlineVisible = new SimpleBooleanProperty(this, "underlineVisible", true);
-    private final ObjectProperty<Image> arrowImage = new SimpleObjectProperty<>();
+    private final ObjectProperty<Image> arrowImage = new SimpleObjectProperty<>(this, "arrowImage");
+    // Source of the arrow image, loaded through OFxImageCache.
+    private final StringProperty arrowImageUrl = new SimpleStringProperty(this, "arrowImageUrl");
     private final DoubleProperty arrowIconWidth = new SimpleDoubleProperty(this, "arrowIconWidth", 10);
     private final DoubleProperty arrowIconHeight = new SimpleDoubleProperty(this, "arrowIconHeight", 10);
-    private final BooleanProperty expanded = new SimpleBooleanProperty(false);
+    private final BooleanProperty expanded = new SimpleBooleanProperty(this, "expanded", false);
     private final StringProperty text = new SimpleStringProperty(this, "text", "Title");
     private final ObjectProperty<Font> font = new SimpleObjectProperty<>(Font.getDefault());
     private final ObjectProperty<Paint> textFill = new SimpleObjectProperty<>(Color.WHITE);
     private final ObjectProperty<Paint> arrowTint = new SimpleObjectProperty<>(Color.WHITE);
     private final ObjectProperty<Paint> hoverColor = new SimpleObjectProperty<>(Color.LIGHTGRAY);
     private final BooleanProperty animated = new SimpleBooleanProperty(this, "animated", true);
-
-    private final Label titleLabel = new Label();
-    private final ImageView arrowIcon = new ImageView();
-    private final HBox headerBox = new HBox();
-    private final Rectangle underline = new Rectangle();
+    // Time the body takes to slide open or closed when the pane is animated.
+    private final ObjectProperty<Duration> animationDuration = new SimpleObjectProperty<>(this, "animationDuration", Duration.millis(200));
+    // Body text matched by OFxExpandableFilter, next to the title.
+    private final StringProperty searchText = new SimpleStringProperty(this, "searchText");
+    // Set by OFxExpandableFilter when the pane doesn't match the current query.
+    private final BooleanProperty filteredOut = new SimpleBooleanProperty(this, "filteredOut", false);
+
+    // Builds the body the first time the pane is expanded, instead of adding it up front.
+    private final ObjectProperty<Supplier<? extends Node>> contentFactory = new SimpleObjectProperty<>(this, "contentFactory");
+    // Time after which a collapsed body built by the factory is dropped, null to keep it.
+    private final ObjectProperty<Duration> contentDisposeDelay = new SimpleObjectProperty<>(this, "contentDisposeDelay");
+    // When true, a collapsed body built by the factory is dropped on memory pressure.
+    private final BooleanProperty disposeContentOnMemoryPressure = new SimpleBooleanProperty(this, "disposeContentOnMemoryPressure", false);
+
+    // Visible and managed values of the application, put back once the pane is no longer filtered out.
+    private boolean visibleBeforeFilter = true;
+    private boolean managedBeforeFilter = true;
+    private boolean applyingFilter;
+
+    private Node factoryContent;
+    private PauseTransition disposeTimer;
+    // Held here since the memory monitor only keeps a weak reference to it.
+    private final Runnable memoryPressureListener = this::onMemoryPressure;
+
+    // Nodes shown below the header while the pane is expanded.
+    private final ObservableList<Node> content = FXCollections.observableArrayList();
 
     public OFxExpandablePane() {
         initialize();
@@ -53,149 +80,119 @@ public class OFxExpandablePane extends VBox {
     private void initialize() {
         getStyleClass().add("expandable-list-section");
 
-        titleLabel.textProperty().bind(text);
-        titleLabel.fontProperty().bind(font);
-        titleLabel.getStyleClass().add("title-label");
-        titleLabel.setMaxWidth(Double.MAX_VALUE);
-
-        arrowIcon.fitWidthProperty().bind(arrowIconWidth);
-        arrowIcon.fitHeightProperty().bind(arrowIconHeight);
-        arrowIcon.setPreserveRatio(true);
-        arrowIcon.setSmooth(true);
-
-        arrowImage.addListener((obs, oldImg, newImg) -> {
-            if (newImg != null) {
-                arrowIcon.setImage(newImg);
-                System.out.println("🖼 arrowImage set: " + newImg.getUrl());
-                if (newImg.getException() != null) newImg.getException().printStackTrace();
-            }
-        });
-
-        arrowImage.addListener((obs, oldImg, newImg) -> {
-            if (newImg != null) {
-                String url = newImg.getUrl();
-                System.out.println("🧪 FXML Image URL: " + url);
-
-                try {
-                    // If SceneBuilder used @-notation, fix it
-                    if (url.startsWith("@")) {
-                        File fxmlDir = new File(System.getProperty("user.dir")); // assume root project dir
-                        File actualFile = new File(fxmlDir, url.substring(1).replace("/", File.separator));
-                        if (actualFile.exists()) {
-                            Image fixedImage = new Image(actualFile.toURI().toString());
-                            arrowIcon.setImage(fixedImage);
-                            System.out.println("✔ Loaded fixed image from file: " + actualFile.getAbsolutePath());
-                        } else {
-                            System.err.println("❌ Fixed path not found: " + actualFile.getAbsolutePath());
-                        }
-                    } else {
-                        // Try default way (e.g., full file:/)
-                        arrowIcon.setImage(newImg);
-                        System.out.println("✔ Loaded normal image: " + url);
-                    }
-                } catch (Exception e) {
-                    System.err.println("❌ Failed to fix image path: " + url);
-                    e.printStackTrace();
+        content.addListener((ListChangeListener<Node>) change -> {
+            while (change.next()) {
+                for (Node node : change.getRemoved()) {
+                    node.getProperties().remove(OWNER_PANE_KEY, this);
+                }
+                for (Node node : change.getAddedSubList()) {
+                    node.getProperties().put(OWNER_PANE_KEY, this);
                 }
             }
         });
 
-        Platform.runLater(() -> {
-            if (arrowImage.get() != null) {
-                arrowIcon.setImage(arrowImage.get());
-                System.out.println("✔ Runtime image from FXML: " + arrowImage.get().getUrl());
+        expanded.addListener((obs, oldVal, newVal) -> {
+            if (newVal) {
+                if (disposeTimer != null) disposeTimer.stop();
+                buildContent();
+            } else {
+                scheduleContentDisposal();
             }
         });
+        contentFactory.addListener((obs, oldVal, newVal) -> {
+            disposeContent();
+            if (isExpanded()) buildContent();
+        });
+        disposeContentOnMemoryPressure.addListener((obs, oldVal, newVal) -> {
+            if (newVal) OFxMemoryMonitor.addListener(memoryPressureListener);
+            else OFxMemoryMonitor.removeListener(memoryPressureListener);
+        });
 
-        arrowIcon.setVisible(true);
-        arrowIcon.setManaged(true);
-        arrowIcon.setOpacity(0.8);
-        arrowIcon.setRotate(0);
-
-        titleLabel.textFillProperty().bind(Bindings.createObjectBinding(() ->
-                        headerBox.isHover() ? hoverColor.get() : textFill.get(),
-                headerBox.hoverProperty(), hoverColor, textFill));
-
-        underline.fillProperty().bind(Bindings.createObjectBinding(() ->
-                        headerBox.isHover() ? hoverColor.get() : textFill.get(),
-                headerBox.hoverProperty(), hoverColor, textFill));
-
-        arrowIcon.effectProperty().bind(Bindings.createObjectBinding(() -> {
-                    double width = arrowIcon.getFitWidth();
-                    double height = arrowIcon.getFitHeight();
-                    Color tint = (Color) (headerBox.isHover() ? hoverColor.get() : arrowTint.get());
-
-                    return new Blend(
-                            BlendMode.SRC_ATOP,
-                            null,
-                            new ColorInput(0, 0, width, height, tint)
-                    );
-                }, headerBox.hoverProperty(), hoverColor, arrowTint,
-                arrowIcon.fitWidthProperty(), arrowIcon.fitHeightProperty()));
-
-        Region spacer = new Region();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-        headerBox.getChildren().addAll(titleLabel, spacer, arrowIcon);
-        headerBox.setAlignment(Pos.CENTER_LEFT);
-        headerBox.setPadding(new Insets(6, 8, 6, 8));
-        headerBox.setOnMouseClicked(e -> setExpanded(!isExpanded()));
-
-        underline.setHeight(1);
-        underline.visibleProperty().bind(underlineVisible);
-        underline.managedProperty().bind(underlineVisible);
-        underline.widthProperty().bind(headerBox.widthProperty());
-
-        VBox underlineBox = new VBox(headerBox, underline);
-        getChildren().add(underlineBox);
-
-        getChildren().addListener((ListChangeListener<Node>) change -> {
-            while (change.next()) {
-                if (change.wasAdded()) {
-                    for (Node node : change.getAddedSubList()) {
-                        if (node != underlineBox) {
-                            node.managedProperty().bind(expanded);
-                            node.visibleProperty().bind(expanded);
-                        }
-                    }
-                }
+        // The parent pane only hides its whole body, so a filtered out pane hides itself.
+        filteredOut.addListener((obs, oldVal, newVal) -> {
+            if (newVal) {
+                visibleBeforeFilter = isVisible();
+                managedBeforeFilter = isManaged();
             }
+            applyFilter();
         });
-
-        expanded.addListener((obs, oldVal, newVal) -> {
-            if (isAnimated()) animateArrow(newVal);
-            else arrowIcon.setRotate(newVal ? 90 : 0);
+        // Values the application sets while the pane is filtered out are the ones put back afterwards.
+        visibleProperty().addListener((obs, oldVal, newVal) -> {
+            if (!isFilteredOut() || applyingFilter) return;
+            visibleBeforeFilter = newVal;
+            applyFilter();
+        });
+        managedProperty().addListener((obs, oldVal, newVal) -> {
+            if (!isFilteredOut() || applyingFilter) return;
+            managedBeforeFilter = newVal;
+            applyFilter();
         });
 
         underlineVisible.addListener((obs, oldVal, newVal) -> pseudoClassStateChanged(UNDERLINE_VISIBLE, newVal));
         pseudoClassStateChanged(UNDERLINE_VISIBLE, underlineVisible.get());
+
+        OFxImageCache.follow(arrowImageUrl, arrowImage, 0, 0);
+    }
+
+    @Override
+    protected Skin<?> createDefaultSkin() {
+        return new OFxExpandablePaneSkin(this);
+    }
+
+    // Returns the parent of a node, or the pane whose content it is while that pane has no skin to parent it yet.
+    static Parent parentOf(Node node) {
+        if (node.getParent() != null) return node.getParent();
+        Object owner = node.getProperties().get(OWNER_PANE_KEY);
+        return owner instanceof OFxExpandablePane ? (OFxExpandablePane) owner : null;
     }
 
-    private void loadImageFromUrl(String url) {
+    // Hides the pane while it is filtered out, and gives the application its own values back afterwards.
+    private void applyFilter() {
+        applyingFilter = true;
         try {
-            Image img;
-            if (url.startsWith("@")) {
-                img = new Image(getClass().getResource(url.substring(1)).toExternalForm());
-            } else if (url.startsWith("file:/") || new File(url).exists()) {
-                img = new Image(new File(url).toURI().toURL().toExternalForm());
-            } else {
-                System.err.println("❌ Invalid image path: " + url);
-                return;
-            }
-            arrowIcon.setImage(img);
-        } catch (Exception e) {
-            System.err.println("❌ Failed to load image from url: " + url);
-            e.printStackTrace();
+            if (!visibleProperty().isBound()) setVisible(!isFilteredOut() && visibleBeforeFilter);
+            if (!managedProperty().isBound()) setManaged(!isFilteredOut() && managedBeforeFilter);
+        } finally {
+            applyingFilter = false;
+        }
+    }
+
+    // Builds the body through the content factory, if there is one and it isn't built yet.
+    private void buildContent() {
+        Supplier<? extends Node> factory = getContentFactory();
+        if (factory == null || factoryContent != null) return;
+        factoryContent = factory.get();
+        if (factoryContent != null) content.add(factoryContent);
+    }
+
+    // Drops the body built by the content factory, it is built again on the next expand.
+    private void disposeContent() {
+        if (disposeTimer != null) disposeTimer.stop();
+        if (factoryContent == null) return;
+        content.remove(factoryContent);
+        factoryContent = null;
+    }
+
+    private void scheduleContentDisposal() {
+        Duration delay = getContentDisposeDelay();
+        if (factoryContent == null || delay == null || delay.isIndefinite()) return;
+        if (disposeTimer == null) {
+            disposeTimer = new PauseTransition();
+            disposeTimer.setOnFinished(e -> {
+                if (!isExpanded()) disposeContent();
+            });
         }
+        disposeTimer.setDuration(delay);
+        disposeTimer.playFromStart();
     }
 
-    private void animateArrow(boolean expand) {
-        RotateTransition rotate = new RotateTransition(Duration.millis(100), arrowIcon);
-        rotate.setFromAngle(expand ? 0 : 90);
-        rotate.setToAngle(expand ? 90 : 0);
-        rotate.play();
+    private void onMemoryPressure() {
+        if (!isExpanded()) disposeContent();
     }
 
     // Properties
+    public ObservableList<Node> getContent() { return content; }
+
     public void expand() { setExpanded(true); }
     public void collapse() { setExpanded(false); }
     public boolean isExpanded() { return expanded.get(); }
@@ -210,6 +207,10 @@ public class OFxExpandablePane extends VBox {
     public void setArrowImage(Image image) { this.arrowImage.set(image); }
     public ObjectProperty<Image> arrowImageProperty() { return arrowImage; }
 
+    public String getArrowImageUrl() { return arrowImageUrl.get(); }
+    public void setArrowImageUrl(String value) { arrowImageUrl.set(value); }
+    public StringProperty arrowImageUrlProperty() { return arrowImageUrl; }
+
     public double getArrowIconWidth() { return arrowIconWidth.get(); }
     public void setArrowIconWidth(double width) { this.arrowIconWidth.set(width); }
     public DoubleProperty arrowIconWidthProperty() { return arrowIconWidth; }
@@ -241,4 +242,31 @@ public class OFxExpandablePane extends VBox {
     public boolean isAnimated() { return animated.get(); }
     public void setAnimated(boolean value) { animated.set(value); }
     public BooleanProperty animatedProperty() { return animated; }
+
+    public Duration getAnimationDuration() { return animationDuration.get(); }
+    public void setAnimationDuration(Duration value) { animationDuration.set(value); }
+    public ObjectProperty<Duration> animationDurationProperty() { return animationDuration; }
+
+    public Supplier<? extends Node> getContentFactory() { return contentFactory.get(); }
+    public void setContentFactory(Supplier<? extends Node> value) { contentFactory.set(value); }
+    public ObjectProperty<Supplier<? extends Node>> contentFactoryProperty() { return contentFactory; }
+
+    public Duration getContentDisposeDelay() { return contentDisposeDelay.get(); }
+    public void setContentDisposeDelay(Duration value) { contentDisposeDelay.set(value); }
+    public ObjectProperty<Duration> contentDisposeDelayProperty() { return contentDisposeDelay; }
+
+    public boolean isDisposeContentOnMemoryPressure() { return disposeContentOnMemoryPressure.get(); }
+    public void setDisposeContentOnMemoryPressure(boolean value) { disposeContentOnMemoryPressure.set(value); }
+    public BooleanProperty disposeContentOnMemoryPressureProperty() { return disposeContentOnMemoryPressure; }
+
+    public String getSearchText() { return searchText.get(); }
+    public void setSearchText(String value) { searchText.set(value); }
+    public StringProperty searchTextProperty() { return searchText; }
+
+    public boolean isFilteredOut() { return filteredOut.get(); }
+    public void setFilteredOut(boolean value) { filteredOut.set(value); }
+    public BooleanProperty filteredOutProperty() { return filteredOut; }
+
+    // Returns true if the body built by the content factory currently exists.
+    public boolean isContentLoaded() { return factoryContent != null; }
 }
\ No newline at end of file
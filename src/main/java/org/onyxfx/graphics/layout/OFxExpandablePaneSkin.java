@@ -0,0 +1,352 @@
+package org.onyxfx.graphics.layout;
+
+import javafx.animation.Interpolator;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.RotateTransition;
+import javafx.animation.Timeline;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.event.EventHandler;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.HPos;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.control.SkinBase;
+import javafx.scene.effect.Blend;
+import javafx.scene.effect.BlendMode;
+import javafx.scene.effect.ColorInput;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextBoundsType;
+import javafx.scene.transform.Transform;
+import javafx.stage.Window;
+import javafx.util.Duration;
+import org.onyxfx.graphics.util.OFxImageCache;
+
+/**
+ * Default skin of {@link OFxExpandablePane}.
+ * The header is a text and an arrow laid out by hand, and the hover state is worked out from the pane's own
+ * mouse events, so a pane only needs four nodes besides its content. The arrow tint is swapped between two
+ * effects built once, instead of being rebuilt on every hover change.
+ * <p>
+ * Expanding and collapsing slide a snapshot of the body under the header, by moving its clip and translation on
+ * every frame. The body itself is only laid out when the animation starts and ends.
+ */
+public class OFxExpandablePaneSkin extends SkinBase<OFxExpandablePane> {
+
+    // Messages about the arrow image are only printed with -Donyxfx.debug=true.
+    private static final boolean DEBUG = Boolean.getBoolean("onyxfx.debug");
+
+    private static final double HEADER_PADDING_X = 8;
+    private static final double HEADER_PADDING_Y = 6;
+    private static final double UNDERLINE_HEIGHT = 1;
+
+    private final Text title = new Text();
+    private final ImageView arrowIcon = new ImageView();
+    private final Rectangle underline = new Rectangle();
+    private final VBox body = new VBox();
+
+    private final ColorInput arrowTint = new ColorInput();
+    private final ColorInput arrowHoverTint = new ColorInput();
+    private final Blend arrowEffect = new Blend(BlendMode.SRC_ATOP, null, arrowTint);
+    private final Blend arrowHoverEffect = new Blend(BlendMode.SRC_ATOP, null, arrowHoverTint);
+    private RotateTransition arrowRotation;
+
+    // Shown while the body slides, in place of the body.
+    private ImageView bodySnapshot;
+    private final Rectangle bodySnapshotClip = new Rectangle();
+    // Part of the body height shown by the animation, from 0 when collapsed to 1 when expanded.
+    private final DoubleProperty bodyFraction = new SimpleDoubleProperty(this, "bodyFraction");
+    private Timeline bodyAnimation;
+    private double bodyHeight;
+
+    private boolean headerHover;
+    // Bottom of the header at the last layout, so mouse moves don't measure the title again.
+    private double headerBottom;
+    private final EventHandler<MouseEvent> mouseHandler = this::onMouseEvent;
+
+    public OFxExpandablePaneSkin(OFxExpandablePane pane) {
+        super(pane);
+
+        title.textProperty().bind(pane.textProperty());
+        title.fontProperty().bind(pane.fontProperty());
+        title.setBoundsType(TextBoundsType.LOGICAL_VERTICAL_CENTER);
+        title.getStyleClass().add("title-label");
+
+        arrowIcon.fitWidthProperty().bind(pane.arrowIconWidthProperty());
+        arrowIcon.fitHeightProperty().bind(pane.arrowIconHeightProperty());
+        arrowIcon.setPreserveRatio(true);
+        arrowIcon.setSmooth(true);
+        arrowIcon.setOpacity(0.8);
+        arrowIcon.setRotate(pane.isExpanded() ? 90 : 0);
+        updateArrowImage();
+        arrowIcon.getStyleClass().add("arrow-icon");
+
+        for (ColorInput input : new ColorInput[] {arrowTint, arrowHoverTint}) {
+            input.widthProperty().bind(pane.arrowIconWidthProperty());
+            input.heightProperty().bind(pane.arrowIconHeightProperty());
+        }
+        arrowTint.paintProperty().bind(pane.arrowTintProperty());
+        arrowHoverTint.paintProperty().bind(pane.hoverColorProperty());
+
+        underline.setHeight(UNDERLINE_HEIGHT);
+        underline.visibleProperty().bind(pane.underlineVisibleProperty());
+        underline.getStyleClass().add("underline");
+
+        Bindings.bindContent(body.getChildren(), pane.getContent());
+        body.setVisible(pane.isExpanded());
+        body.getStyleClass().add("content");
+
+        updateColors();
+        getChildren().addAll(title, arrowIcon, underline, body);
+
+        pane.addEventHandler(MouseEvent.MOUSE_ENTERED, mouseHandler);
+        pane.addEventHandler(MouseEvent.MOUSE_MOVED, mouseHandler);
+        pane.addEventHandler(MouseEvent.MOUSE_EXITED, mouseHandler);
+        pane.addEventHandler(MouseEvent.MOUSE_CLICKED, mouseHandler);
+
+        registerChangeListener(pane.arrowImageProperty(), obs -> updateArrowImage());
+        registerChangeListener(pane.textFillProperty(), obs -> updateColors());
+        registerChangeListener(pane.hoverColorProperty(), obs -> updateColors());
+        registerChangeListener(pane.underlineVisibleProperty(), obs -> pane.requestLayout());
+        registerChangeListener(pane.expandedProperty(), obs -> {
+            boolean expanded = pane.isExpanded();
+            // Panes out of sight, e.g. when a whole group is toggled, don't need an animation.
+            if (pane.isAnimated() && isOnScreen()) {
+                animateArrow(expanded);
+                animateBody(expanded);
+            } else {
+                if (arrowRotation != null) arrowRotation.stop();
+                arrowIcon.setRotate(expanded ? 90 : 0);
+                stopBodyAnimation();
+                body.setVisible(expanded);
+            }
+            pane.requestLayout();
+        });
+        bodyFraction.addListener(obs -> updateBodySnapshot());
+    }
+
+    @Override
+    public void dispose() {
+        OFxExpandablePane pane = getSkinnable();
+        if (pane == null) return;
+        pane.removeEventHandler(MouseEvent.MOUSE_ENTERED, mouseHandler);
+        pane.removeEventHandler(MouseEvent.MOUSE_MOVED, mouseHandler);
+        pane.removeEventHandler(MouseEvent.MOUSE_EXITED, mouseHandler);
+        pane.removeEventHandler(MouseEvent.MOUSE_CLICKED, mouseHandler);
+        if (arrowRotation != null) arrowRotation.stop();
+        stopBodyAnimation();
+        // Releasing the content so the next skin can parent it.
+        Bindings.unbindContent(body.getChildren(), pane.getContent());
+        body.getChildren().clear();
+        super.dispose();
+    }
+
+    // The events come from the pane and its content, with coordinates in the pane.
+    private void onMouseEvent(MouseEvent event) {
+        if (event.getEventType() == MouseEvent.MOUSE_EXITED) {
+            setHeaderHover(false);
+        } else if (event.getEventType() == MouseEvent.MOUSE_CLICKED) {
+            if (isInHeader(event.getY())) getSkinnable().setExpanded(!getSkinnable().isExpanded());
+        } else {
+            setHeaderHover(isInHeader(event.getY()));
+        }
+    }
+
+    private void setHeaderHover(boolean hover) {
+        if (headerHover == hover) return;
+        headerHover = hover;
+        updateColors();
+    }
+
+    private void updateColors() {
+        OFxExpandablePane pane = getSkinnable();
+        title.setFill(headerHover ? pane.getHoverColor() : pane.getTextFill());
+        underline.setFill(headerHover ? pane.getHoverColor() : pane.getTextFill());
+        arrowIcon.setEffect(headerHover ? arrowHoverEffect : arrowEffect);
+    }
+
+    private boolean isInHeader(double y) {
+        return y >= snappedTopInset() && y < headerBottom;
+    }
+
+    private double headerHeight() {
+        return Math.max(title.prefHeight(-1), arrowIcon.prefHeight(-1)) + 2 * HEADER_PADDING_Y;
+    }
+
+    private double underlineHeight() {
+        return underline.isVisible() ? UNDERLINE_HEIGHT : 0;
+    }
+
+    private void animateArrow(boolean expand) {
+        if (arrowRotation == null) arrowRotation = new RotateTransition(Duration.millis(100), arrowIcon);
+        arrowRotation.stop();
+        arrowRotation.setFromAngle(arrowIcon.getRotate());
+        arrowRotation.setToAngle(expand ? 90 : 0);
+        arrowRotation.play();
+    }
+
+    // Slides the body open or closed, from where a running animation left it.
+    private void animateBody(boolean expand) {
+        OFxExpandablePane pane = getSkinnable();
+        if (bodyAnimation == null) {
+            double width = pane.getWidth() - snappedLeftInset() - snappedRightInset();
+            if (width <= 0 || !takeBodySnapshot(width)) {
+                body.setVisible(expand);
+                return;
+            }
+            bodyFraction.set(expand ? 0 : 1);
+            updateBodySnapshot();
+        } else {
+            bodyAnimation.stop();
+        }
+
+        double target = expand ? 1 : 0;
+        Duration duration = pane.getAnimationDuration() == null ? Duration.ZERO : pane.getAnimationDuration();
+        bodyAnimation = new Timeline(new KeyFrame(duration.multiply(Math.abs(target - bodyFraction.get())),
+                new KeyValue(bodyFraction, target, Interpolator.EASE_BOTH)));
+        bodyAnimation.setOnFinished(e -> stopBodyAnimation());
+        bodyAnimation.play();
+    }
+
+    // Lays the body out once at its full height and swaps it for a snapshot of itself.
+    private boolean takeBodySnapshot(double width) {
+        body.setVisible(true);
+        body.applyCss();
+        bodyHeight = snapSizeY(body.prefHeight(width));
+        if (bodyHeight <= 0) return false;
+        body.resize(width, bodyHeight);
+        body.layout();
+
+        Window window = getSkinnable().getScene().getWindow();
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setTransform(Transform.scale(window.getOutputScaleX(), window.getOutputScaleY()));
+        WritableImage image = body.snapshot(parameters, null);
+        body.setVisible(false);
+
+        if (bodySnapshot == null) {
+            bodySnapshot = new ImageView();
+            bodySnapshot.setManaged(false);
+            bodySnapshot.setClip(bodySnapshotClip);
+        }
+        bodySnapshot.setImage(image);
+        bodySnapshot.setFitWidth(width);
+        bodySnapshot.setFitHeight(bodyHeight);
+        bodySnapshotClip.setWidth(width);
+        getChildren().add(bodySnapshot);
+        return true;
+    }
+
+    // Moves the snapshot down from under the header and clips away what is still hidden.
+    private void updateBodySnapshot() {
+        if (bodySnapshot == null || bodySnapshot.getParent() == null) return;
+        double hidden = bodyHeight * (1 - bodyFraction.get());
+        bodySnapshot.setTranslateY(-hidden);
+        bodySnapshotClip.setY(hidden);
+        bodySnapshotClip.setHeight(bodyHeight - hidden);
+        // Only the pane's height changes, the body isn't laid out again until the end.
+        getSkinnable().requestLayout();
+    }
+
+    // Ends the body animation where it is, showing the real body if the pane is expanded.
+    private void stopBodyAnimation() {
+        if (bodyAnimation == null) return;
+        bodyAnimation.setOnFinished(null);
+        bodyAnimation.stop();
+        bodyAnimation = null;
+        getChildren().remove(bodySnapshot);
+        bodySnapshot.setImage(null);
+        body.setVisible(getSkinnable().isExpanded());
+        getSkinnable().requestLayout();
+    }
+
+    // Returns true if the header is shown and intersects the visible area of the scene,
+    // and of every clipping ancestor such as the viewport of a ScrollPane.
+    private boolean isOnScreen() {
+        OFxExpandablePane pane = getSkinnable();
+        if (pane.getScene() == null || pane.getScene().getWindow() == null || !pane.getScene().getWindow().isShowing()) return false;
+        Bounds header = pane.localToScene(new BoundingBox(0, 0, pane.getWidth(), snappedTopInset() + headerHeight()));
+        for (Node node = pane; node != null; node = node.getParent()) {
+            if (!node.isVisible()) return false;
+            if (node.getClip() != null && !node.getClip().getBoundsInParent().intersects(node.sceneToLocal(header))) return false;
+        }
+        return header.getMaxX() > 0 && header.getMaxY() > 0
+                && header.getMinX() < pane.getScene().getWidth() && header.getMinY() < pane.getScene().getHeight();
+    }
+
+    // SceneBuilder may write the image with a "@" path, relative to the FXML file; the image cache looks it up
+    // in the working directory, off the FX thread.
+    private void updateArrowImage() {
+        Image image = getSkinnable().getArrowImage();
+        arrowIcon.setImage(image);
+        if (image == null) return;
+        if (DEBUG && image.getException() != null) image.getException().printStackTrace();
+        if (image.getUrl() == null || !image.getUrl().startsWith("@")) return;
+
+        OFxImageCache.load(image.getUrl()).whenComplete((loaded, error) -> {
+            if (getSkinnable() == null || getSkinnable().getArrowImage() != image) return;
+            if (loaded != null) arrowIcon.setImage(loaded);
+            else if (DEBUG) System.err.println("Arrow image not found: " + image.getUrl());
+        });
+    }
+
+    @Override
+    protected void layoutChildren(double x, double y, double w, double h) {
+        double headerHeight = headerHeight();
+        headerBottom = y + headerHeight;
+        double arrowWidth = arrowIcon.prefWidth(-1);
+        positionInArea(title, x + HEADER_PADDING_X, y, w - 2 * HEADER_PADDING_X - arrowWidth, headerHeight, 0, HPos.LEFT, VPos.CENTER);
+        positionInArea(arrowIcon, x + w - HEADER_PADDING_X - arrowWidth, y, arrowWidth, headerHeight, 0, HPos.RIGHT, VPos.CENTER);
+
+        underline.setWidth(w);
+        underline.relocate(x, y + headerHeight);
+
+        double bodyY = y + headerHeight + underlineHeight();
+        if (bodyAnimation != null) {
+            bodySnapshot.relocate(x, bodyY);
+        } else if (body.isVisible()) {
+            body.resizeRelocate(x, bodyY, w, Math.max(0, y + h - bodyY));
+        }
+    }
+
+    @Override
+    protected double computeMinHeight(double width, double topInset, double rightInset, double bottomInset, double leftInset) {
+        double bodyHeight = bodyAnimation != null ? animatedBodyHeight()
+                : body.isVisible() ? body.minHeight(width - leftInset - rightInset) : 0;
+        return topInset + headerHeight() + underlineHeight() + bodyHeight + bottomInset;
+    }
+
+    @Override
+    protected double computePrefHeight(double width, double topInset, double rightInset, double bottomInset, double leftInset) {
+        double bodyHeight = bodyAnimation != null ? animatedBodyHeight()
+                : body.isVisible() ? body.prefHeight(width < 0 ? -1 : width - leftInset - rightInset) : 0;
+        return topInset + headerHeight() + underlineHeight() + bodyHeight + bottomInset;
+    }
+
+    private double animatedBodyHeight() {
+        return snapSizeY(bodyHeight * bodyFraction.get());
+    }
+
+    @Override
+    protected double computePrefWidth(double height, double topInset, double rightInset, double bottomInset, double leftInset) {
+        double headerWidth = 2 * HEADER_PADDING_X + title.prefWidth(-1) + arrowIcon.prefWidth(-1);
+        double bodyWidth = body.isVisible() ? body.prefWidth(-1) : 0;
+        return leftInset + Math.max(headerWidth, bodyWidth) + rightInset;
+    }
+
+    @Override
+    protected double computeMinWidth(double height, double topInset, double rightInset, double bottomInset, double leftInset) {
+        return leftInset + 2 * HEADER_PADDING_X + arrowIcon.prefWidth(-1) + rightInset;
+    }
+}
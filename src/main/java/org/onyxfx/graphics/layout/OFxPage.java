@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.layout;
+
+import java.util.Map;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * Lifecycle callbacks of a page shown by an {@link OFxSwitcher}.
+ * A page receives them either by implementing this interface itself, or through an
+ * object attached with {@link OFxSwitcher#setPageLifecycle(javafx.scene.Node, OFxPage)},
+ * such as an FXML controller. Pages use them to pause animations and unsubscribe from
+ * data feeds while nobody can see them.
+ *
+ * A page built by a factory can also be evicted when it is inactive (cache overflow or
+ * hibernation) and rebuilt later. {@link #saveState()} is called before it is dropped,
+ * and the returned state is handed to {@link #restoreState(Object)} of the rebuilt page.
+ *
+ * All callbacks are invoked on the FX thread.
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+public interface OFxPage {
+
+    // Called when the page becomes the visible page of the switcher.
+    default void onActivate() {
+    }
+
+    // Called when the page stops being the visible page of the switcher.
+    default void onDeactivate() {
+    }
+
+    // Called when the switcher lets go of the page, after it is evicted from the cache or removed from the switcher.
+    default void onDispose() {
+    }
+
+    /**
+     * Called with changes of the switcher's {@link OFxPageContext}. The active page receives each change
+     * as it happens; a page that was hidden receives, right before {@link #onActivate()}, one map holding
+     * the latest value of every key changed in the meantime. Removed keys map to {@code null}.
+     */
+    default void onContextChanged(Map<String, Object> changes) {
+    }
+
+    // Returns the state to restore when the page is rebuilt after being evicted, or null if there is nothing to keep.
+    default Object saveState() {
+        return null;
+    }
+
+    // Called on a rebuilt page, before it is activated, with the state saved by the page it replaces.
+    default void restoreState(Object state) {
+    }
+}
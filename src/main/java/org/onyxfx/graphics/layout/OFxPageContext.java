@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.layout;
+
+import javafx.scene.Node;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * Data shared between the pages of an {@link OFxSwitcher}, see {@link OFxSwitcher#getContext()}.
+ *
+ * Changes are only delivered to the active page, through {@link OFxPage#onContextChanged(Map)}.
+ * A hidden page receives nothing while it is hidden; when it is activated again it gets a
+ * single delta holding the latest value of every key changed since it last saw the context.
+ * Updating the context therefore costs work on one page only, however many pages there are.
+ *
+ * Like the switcher, the context must only be used on the FX thread.
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+public final class OFxPageContext {
+
+    // Key of the context version a page has last seen, stored in the page's properties.
+    private static final Object SEEN_VERSION_KEY = new Object();
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    // Version of the last change of each key, removed keys included.
+    private final Map<String, Long> versions = new HashMap<>();
+
+    // Incremented on every change.
+    private long version;
+
+    // The page receiving the changes, set by the switcher.
+    private Node activePage;
+
+    OFxPageContext() {
+    }
+
+    /**
+     * Sets the value of a key, and delivers the change to the active page.
+     * Setting a key to {@code null} removes it, and is delivered as a {@code null} value.
+     */
+    public void put(String key, Object value) {
+        if (value == null) {
+            if (!values.containsKey(key)) return;
+            values.remove(key);
+        } else if (value.equals(values.put(key, value))) {
+            return;
+        }
+        versions.put(key, ++version);
+
+        if (activePage != null) {
+            markSeen(activePage);
+            OFxPage lifecycle = OFxSwitcher.getPageLifecycle(activePage);
+            if (lifecycle != null) lifecycle.onContextChanged(Collections.singletonMap(key, value));
+        }
+    }
+
+    public void remove(String key) {
+        put(key, null);
+    }
+
+    public Object get(String key) {
+        return values.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, T defaultValue) {
+        Object value = values.get(key);
+        return value != null ? (T) value : defaultValue;
+    }
+
+    public boolean containsKey(String key) {
+        return values.containsKey(key);
+    }
+
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    // Makes the given page the one receiving changes, after handing it what it missed while it was hidden.
+    void activate(Node page) {
+        activePage = page;
+        if (page == null) return;
+
+        Object seen = page.getProperties().get(SEEN_VERSION_KEY);
+        long seenVersion = seen != null ? (Long) seen : 0;
+        markSeen(page);
+        if (seenVersion == version) return;
+
+        Map<String, Object> delta = new LinkedHashMap<>();
+        versions.forEach((key, changed) -> {
+            if (changed > seenVersion) delta.put(key, values.get(key));
+        });
+        OFxPage lifecycle = OFxSwitcher.getPageLifecycle(page);
+        if (lifecycle != null) lifecycle.onContextChanged(Collections.unmodifiableMap(delta));
+    }
+
+    private void markSeen(Node page) {
+        page.getProperties().put(SEEN_VERSION_KEY, version);
+    }
+}
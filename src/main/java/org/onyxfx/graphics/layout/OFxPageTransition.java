@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.layout;
+
+import javafx.animation.Animation;
+import javafx.animation.Interpolator;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * The transitions {@link OFxSwitcher} can play when switching pages.
+ * The outgoing page is rasterized once before the transition starts,
+ * so only its snapshot and the incoming page are rendered while it runs.
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+public enum OFxPageTransition {
+
+    // Pages are switched instantly.
+    NONE {
+        @Override
+        Animation create(Node outgoing, Node incoming, double width, boolean forward, Duration duration) {
+            return null;
+        }
+    },
+
+    // The outgoing page fades out while the incoming one fades in.
+    FADE {
+        @Override
+        Animation create(Node outgoing, Node incoming, double width, boolean forward, Duration duration) {
+            return new Timeline(
+                    new KeyFrame(Duration.ZERO,
+                            new KeyValue(outgoing.opacityProperty(), 1),
+                            new KeyValue(incoming.opacityProperty(), 0)),
+                    new KeyFrame(duration,
+                            new KeyValue(outgoing.opacityProperty(), 0, Interpolator.EASE_BOTH),
+                            new KeyValue(incoming.opacityProperty(), 1, Interpolator.EASE_BOTH)));
+        }
+    },
+
+    // The incoming page pushes the outgoing one out, to the left when moving to a higher index.
+    SLIDE {
+        @Override
+        Animation create(Node outgoing, Node incoming, double width, boolean forward, Duration duration) {
+            double distance = forward ? width : -width;
+            return new Timeline(
+                    new KeyFrame(Duration.ZERO,
+                            new KeyValue(outgoing.translateXProperty(), 0),
+                            new KeyValue(incoming.translateXProperty(), distance)),
+                    new KeyFrame(duration,
+                            new KeyValue(outgoing.translateXProperty(), -distance, Interpolator.EASE_BOTH),
+                            new KeyValue(incoming.translateXProperty(), 0, Interpolator.EASE_BOTH)));
+        }
+    },
+
+    // The outgoing page grows and fades out while the incoming one grows into place.
+    ZOOM {
+        @Override
+        Animation create(Node outgoing, Node incoming, double width, boolean forward, Duration duration) {
+            return new Timeline(
+                    new KeyFrame(Duration.ZERO,
+                            new KeyValue(outgoing.opacityProperty(), 1),
+                            new KeyValue(outgoing.scaleXProperty(), 1),
+                            new KeyValue(outgoing.scaleYProperty(), 1),
+                            new KeyValue(incoming.opacityProperty(), 0),
+                            new KeyValue(incoming.scaleXProperty(), 0.9),
+                            new KeyValue(incoming.scaleYProperty(), 0.9)),
+                    new KeyFrame(duration,
+                            new KeyValue(outgoing.opacityProperty(), 0, Interpolator.EASE_BOTH),
+                            new KeyValue(outgoing.scaleXProperty(), 1.1, Interpolator.EASE_BOTH),
+                            new KeyValue(outgoing.scaleYProperty(), 1.1, Interpolator.EASE_BOTH),
+                            new KeyValue(incoming.opacityProperty(), 1, Interpolator.EASE_BOTH),
+                            new KeyValue(incoming.scaleXProperty(), 1, Interpolator.EASE_BOTH),
+                            new KeyValue(incoming.scaleYProperty(), 1, Interpolator.EASE_BOTH)));
+        }
+    };
+
+    /**
+     * Creates the animation moving from the snapshot of the outgoing page to the incoming page.
+     *
+     * @param outgoing the snapshot of the outgoing page
+     * @param incoming the incoming page
+     * @param width    the width of the switcher
+     * @param forward  true when switching to a higher index
+     * @param duration the duration of the animation
+     * @return the animation, or {@code null} when pages are switched instantly
+     */
+    abstract Animation create(Node outgoing, Node incoming, double width, boolean forward, Duration duration);
+}
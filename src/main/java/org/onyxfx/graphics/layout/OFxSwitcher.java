@@ -17,10 +17,57 @@
 
 package org.onyxfx.graphics.layout;
 
+import javafx.beans.property.BooleanProperty;
+import javafx.animation.Animation;
+import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
+import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Transform;
+import javafx.stage.Window;
+import javafx.util.Duration;
+import org.onyxfx.graphics.util.OFxMemoryMonitor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
  *
@@ -29,6 +76,52 @@ import javafx.scene.layout.StackPane;
  * A class for managing switchable views,
  * acting as an index to switch between nodes and javafx controls or elements.
  *
+ * Pages are either declared as children of the switcher, or registered lazily
+ * through {@link #setPageFactory(int, Supplier)} / {@link #setPageFactory(int, URL)}.
+ * A factory page is only built the first time its index is selected, and at most
+ * {@link #cacheSizeProperty() cacheSize} factory pages are kept alive at once;
+ * the least recently used one is evicted first.
+ *
+ * With {@link #detachInactiveProperty() detachInactive} enabled, inactive pages are
+ * removed from the scene graph instead of being hidden, so they take no part in CSS
+ * and layout passes. Only the active page, plus {@link #attachedNeighboursProperty()
+ * attachedNeighbours} built pages on each side of it, stay attached. The children then only
+ * hold the attached pages: clearing or replacing the whole list replaces every declared page,
+ * detached ones included, and {@link #removePage(Node)} removes a single page wherever it is.
+ *
+ * Factory pages can be built ahead of time on a worker thread through
+ * {@link #prebuildPage(int)}. With {@link #asyncLoadingProperty() asyncLoading} enabled,
+ * selecting a page that isn't built yet shows the {@link #placeholderProperty() placeholder}
+ * and builds the page in the background instead of blocking the FX thread.
+ * Factories used this way must not touch nodes that are already part of a scene.
+ *
+ * Switching pages can be animated through {@link #transitionProperty() transition}.
+ * The outgoing page is rasterized once into an image, so only that image and the
+ * incoming page are rendered while the transition runs. Selecting another index
+ * mid-flight ends the running transition and starts the next one.
+ *
+ * Pages are told when they are activated, deactivated and disposed through {@link OFxPage},
+ * implemented by the page itself or attached with {@link #setPageLifecycle(Node, OFxPage)}.
+ * With {@link #autoPauseAnimationsProperty() autoPauseAnimations} enabled, the animations
+ * registered with {@link #addPageAnimation(Node, Animation)} under a page are paused while
+ * it is inactive.
+ *
+ * Inactive factory pages can be hibernated to relieve the heap: their state is saved through
+ * {@link OFxPage#saveState()}, their nodes are dropped, and they are rebuilt and restored on
+ * their next activation. Hibernation happens when the heap still uses more than
+ * {@link #heapBudgetProperty() heapBudget} after a garbage collection, on {@link OFxMemoryMonitor} notifications when
+ * {@link #hibernateOnMemoryPressureProperty() hibernateOnMemoryPressure} is enabled, or
+ * through {@link #hibernateInactivePages()}.
+ *
+ * Data shared by the pages goes through {@link #getContext()}, whose changes only reach the active page.
+ *
+ * The switcher records how often each index leads to each other index. With
+ * {@link #prefetchProperty() prefetch} enabled, it uses the time left in pulses after the
+ * layout pass, up to {@link #prefetchBudgetProperty() prefetchBudget}, to build (or attach
+ * again, in detach mode) the {@link #prefetchCountProperty() prefetchCount} pages most likely
+ * to be selected next. {@link #getTransitionStatistics()}, {@link #getPageHitCount()} and
+ * {@link #getPageMissCount()} tell how well this works.
+ *
  * @author MuhammedTJ
  * @version 1.0
  * @since 2025
@@ -42,10 +135,180 @@ public class OFxSwitcher extends StackPane {
     // The default value is set to -1, meaning no child is visible initially.
     private final IntegerProperty index = new SimpleIntegerProperty(this, "index", -1);
 
+    // When true, index changes are applied once per pulse instead of immediately.
+    private final BooleanProperty coalesceIndexChanges = new SimpleBooleanProperty(this, "coalesceIndexChanges", false);
+
+    // Maximum number of factory-built pages kept alive at the same time.
+    private final IntegerProperty cacheSize = new SimpleIntegerProperty(this, "cacheSize", 8);
+
+    // When true, inactive pages are detached from the switcher instead of only being hidden.
+    private final BooleanProperty detachInactive = new SimpleBooleanProperty(this, "detachInactive", false);
+
+    // Number of built pages on each side of the active one that stay attached in detach mode.
+    private final IntegerProperty attachedNeighbours = new SimpleIntegerProperty(this, "attachedNeighbours", 0);
+
+    // When true, selecting a factory page that isn't built yet builds it on the page executor.
+    private final BooleanProperty asyncLoading = new SimpleBooleanProperty(this, "asyncLoading", false);
+
+    // Executor building factory pages off the FX thread.
+    private final ObjectProperty<Executor> pageExecutor = new SimpleObjectProperty<>(this, "pageExecutor", DEFAULT_PAGE_EXECUTOR);
+
+    // Node shown while the selected page is being built in the background, a ProgressIndicator when null.
+    private final ObjectProperty<Node> placeholder = new SimpleObjectProperty<>(this, "placeholder");
+
+    // Transition played when switching pages, and its duration.
+    private final ObjectProperty<OFxPageTransition> transition = new SimpleObjectProperty<>(this, "transition", OFxPageTransition.NONE);
+    private final ObjectProperty<Duration> transitionDuration = new SimpleObjectProperty<>(this, "transitionDuration", Duration.millis(250));
+
+    // When true, the running animations registered under a page are paused while it is inactive.
+    private final BooleanProperty autoPauseAnimations = new SimpleBooleanProperty(this, "autoPauseAnimations", false);
+
+    // Heap size (in bytes) still used after a garbage collection above which inactive factory pages are
+    // hibernated after a switch, 0 to disable.
+    private final LongProperty heapBudget = new SimpleLongProperty(this, "heapBudget", 0);
+
+    // When true, inactive factory pages are hibernated on memory pressure notifications.
+    private final BooleanProperty hibernateOnMemoryPressure = new SimpleBooleanProperty(this, "hibernateOnMemoryPressure", false);
+
+    // When true, the pages most likely to be selected next are prepared during idle pulses.
+    private final BooleanProperty prefetch = new SimpleBooleanProperty(this, "prefetch", false);
+
+    // Number of likely next pages prepared after each switch.
+    private final IntegerProperty prefetchCount = new SimpleIntegerProperty(this, "prefetchCount", 1);
+
+    // Time a pulse may spend preparing pages once its layout pass is done.
+    private final ObjectProperty<Duration> prefetchBudget = new SimpleObjectProperty<>(this, "prefetchBudget", Duration.millis(4));
+
+    // Shared executor of daemon threads, used unless another executor is set.
+    private static final Executor DEFAULT_PAGE_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "OFxSwitcher-page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Key stored in a factory-built node's properties, holding the index it was built for.
+    private static final Object FACTORY_PAGE_KEY = new Object();
+
+    // Key marking nodes the switcher adds for itself (placeholder), which are never pages.
+    private static final Object INTERNAL_NODE_KEY = new Object();
+
+    // Keys of the focus owner and scroll positions saved in a page's properties while it is detached.
+    private static final Object FOCUS_OWNER_KEY = new Object();
+    private static final Object SCROLL_STATE_KEY = new Object();
+
+    // Keys of a page's lifecycle, of the animations registered on a node, and of those paused with its page.
+    private static final Object PAGE_LIFECYCLE_KEY = new Object();
+    private static final Object PAGE_ANIMATIONS_KEY = new Object();
+    private static final Object PAUSED_ANIMATIONS_KEY = new Object();
+
+    // Factories registered per index, used to build pages the first time they are selected.
+    private final Map<Integer, Supplier<? extends Node>> pageFactories = new HashMap<>();
+
+    // Pages built from factories, in access order so the least recently used page comes first.
+    private final LinkedHashMap<Integer, Node> pageCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Data shared by the pages, delivered to the active page only.
+    private final OFxPageContext context = new OFxPageContext();
+
+    // States saved by evicted factory pages, handed to the page rebuilt for the same index.
+    private final Map<Integer, Object> savedStates = new HashMap<>();
+
+    // Memory pressure listener, held here since the monitor only keeps a weak reference to it.
+    private final Runnable memoryPressureListener = this::hibernateInactivePages;
+    // Garbage collection count when the heap budget last hibernated pages, -1 if it never did.
+    private long hibernatedAtCollection = -1;
+
+    // Factory pages currently being built in the background.
+    private final Map<Integer, CompletableFuture<Node>> pendingPages = new HashMap<>();
+
+    // The placeholder currently attached, if any.
+    private Node shownPlaceholder;
+
+    // The transition currently playing, and the action restoring the nodes it animates.
+    private Animation runningTransition;
+    private Runnable transitionCleanup;
+
+    // Index of the active page, used to tell the direction of a transition.
+    private int activeIndex = -1;
+
+    // Index the pages are currently switched to. It lags behind 'index' until the next pulse when changes are coalesced.
+    private int shownIndex = -1;
+
+    // Set when index changes wait for the next pulse to be applied.
+    private boolean indexChangePending;
+
+    // Pre-layout pulse listener applying a pending index change, post-layout one prefetching pages,
+    // and the scene they are registered on.
+    private final Runnable indexPulseListener = this::applyPendingIndex;
+    private final Runnable prefetchPulseListener = this::runPrefetch;
+    private Scene pulseScene;
+
+    // Number of switches from an index (outer key) to another one (inner key).
+    private final Map<Integer, Map<Integer, Integer>> transitionCounts = new HashMap<>();
+
+    // Indices of the pages waiting to be prefetched, most likely first.
+    private final Deque<Integer> prefetchQueue = new ArrayDeque<>();
+
+    // Number of switches that landed on a page which was ready (built and attached), and on one that wasn't.
+    private long pageHits;
+    private long pageMisses;
+
+    // Declared (non factory-built) children in their original order, kept in sync incrementally with the children list.
+    private final List<Node> declaredPages = new ArrayList<>();
+
+    // The page currently visible and managed, or null if the index doesn't match any page.
+    private Node activePage;
+
+    // Set while the switcher attaches or detaches pages itself, so the children listener ignores those changes.
+    private boolean updatingChildren;
+
+    // Set while the children list notifies a change, during which no child can be removed.
+    private boolean notifyingChildren;
+
+    // Nodes the switcher removed from within a children change, taken out of the children on the next layout pass.
+    private final List<Node> deferredRemovals = new ArrayList<>();
+
     // Constructor for OFxSwitcher class.
     public OFxSwitcher(){
         // Adding a listener to the 'index' property to trigger an update of child visibility whenever 'index' changes.
-        index.addListener((obs, oldVal, newVal) -> updateVisibilityChild());
+        index.addListener((obs, oldVal, newVal) -> {
+            // When changes are coalesced, only the last index set before the next pulse is applied.
+            if (isCoalesceIndexChanges() && pulseScene != null) {
+                indexChangePending = true;
+                Platform.requestNextPulse();
+            } else {
+                applyIndex(newVal.intValue());
+            }
+        });
+
+        coalesceIndexChanges.addListener((obs, oldVal, newVal) -> updatePulseListener());
+        prefetch.addListener((obs, oldVal, newVal) -> {
+            if (!newVal) prefetchQueue.clear();
+            updatePulseListener();
+        });
+        sceneProperty().addListener((obs, oldScene, newScene) -> updatePulseListener());
+
+        // Evicting pages straight away when the cache is made smaller.
+        cacheSize.addListener((obs, oldVal, newVal) -> trimPageCache());
+
+        detachInactive.addListener((obs, oldVal, newVal) -> {
+            if (newVal) updateAttachedPages();
+            else attachAllPages();
+        });
+        attachedNeighbours.addListener((obs, oldVal, newVal) -> updateAttachedPages());
+        hibernateOnMemoryPressure.addListener((obs, oldVal, newVal) -> {
+            if (newVal) OFxMemoryMonitor.addListener(memoryPressureListener);
+            else OFxMemoryMonitor.removeListener(memoryPressureListener);
+        });
+        placeholder.addListener((obs, oldVal, newVal) -> {
+            if (shownPlaceholder != null) {
+                showPlaceholder(false);
+                updateVisibilityChild();
+            }
+        });
+
+        // Following changes to the children list, only the nodes that were added or removed are touched.
+        getChildren().addListener(this::onChildrenChanged);
     }
 
     // Getter method for 'index' property.
@@ -58,32 +321,980 @@ public class OFxSwitcher extends StackPane {
         this.index.set(index);
     }
 
+    // Returns the 'index' property, so the switcher can be bound to a model.
+    public IntegerProperty indexProperty() {
+        return index;
+    }
+
+    public boolean isCoalesceIndexChanges() {
+        return coalesceIndexChanges.get();
+    }
+
+    // When enabled, index changes made between two pulses are applied once, at the next pulse, with the last index.
+    public void setCoalesceIndexChanges(boolean value) {
+        coalesceIndexChanges.set(value);
+    }
+
+    public BooleanProperty coalesceIndexChangesProperty() {
+        return coalesceIndexChanges;
+    }
+
+    public boolean isPrefetch() {
+        return prefetch.get();
+    }
+
+    public void setPrefetch(boolean value) {
+        prefetch.set(value);
+    }
+
+    public BooleanProperty prefetchProperty() {
+        return prefetch;
+    }
+
+    public int getPrefetchCount() {
+        return prefetchCount.get();
+    }
+
+    public void setPrefetchCount(int value) {
+        prefetchCount.set(value);
+    }
+
+    public IntegerProperty prefetchCountProperty() {
+        return prefetchCount;
+    }
+
+    public Duration getPrefetchBudget() {
+        return prefetchBudget.get();
+    }
+
+    public void setPrefetchBudget(Duration value) {
+        prefetchBudget.set(value);
+    }
+
+    public ObjectProperty<Duration> prefetchBudgetProperty() {
+        return prefetchBudget;
+    }
+
+    /**
+     * Returns how many times each index led to each other index, as a copy.
+     * The outer key is the index switched from, the inner key the index switched to.
+     */
+    public Map<Integer, Map<Integer, Integer>> getTransitionStatistics() {
+        Map<Integer, Map<Integer, Integer>> copy = new HashMap<>();
+        transitionCounts.forEach((from, targets) -> copy.put(from, Collections.unmodifiableMap(new HashMap<>(targets))));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    // Returns the number of switches that landed on a page which was already built (and attached in detach mode).
+    public long getPageHitCount() {
+        return pageHits;
+    }
+
+    // Returns the number of switches that landed on a page which still had to be built or attached.
+    public long getPageMissCount() {
+        return pageMisses;
+    }
+
+    // Clears the transition statistics and the hit and miss counts.
+    public void resetStatistics() {
+        transitionCounts.clear();
+        pageHits = 0;
+        pageMisses = 0;
+    }
+
+    // Getter method for 'cacheSize' property.
+    public int getCacheSize() {
+        return cacheSize.get();
+    }
+
+    // Setter method for 'cacheSize' property. Values below 1 are treated as 1, the active page is never evicted.
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize.set(cacheSize);
+    }
+
+    public IntegerProperty cacheSizeProperty() {
+        return cacheSize;
+    }
+
+    public boolean isDetachInactive() {
+        return detachInactive.get();
+    }
+
+    // Enables or disables the detach mode. Pages keep their index either way.
+    public void setDetachInactive(boolean value) {
+        detachInactive.set(value);
+    }
+
+    public BooleanProperty detachInactiveProperty() {
+        return detachInactive;
+    }
+
+    public int getAttachedNeighbours() {
+        return attachedNeighbours.get();
+    }
+
+    public void setAttachedNeighbours(int value) {
+        attachedNeighbours.set(value);
+    }
+
+    public IntegerProperty attachedNeighboursProperty() {
+        return attachedNeighbours;
+    }
+
+    // Returns the context shared by the pages of this switcher.
+    public OFxPageContext getContext() {
+        return context;
+    }
+
+    public boolean isAsyncLoading() {
+        return asyncLoading.get();
+    }
+
+    public void setAsyncLoading(boolean value) {
+        asyncLoading.set(value);
+    }
+
+    public BooleanProperty asyncLoadingProperty() {
+        return asyncLoading;
+    }
+
+    public Executor getPageExecutor() {
+        return pageExecutor.get();
+    }
+
+    // Sets the executor building pages in the background, see newVirtualThreadExecutor() for virtual threads.
+    public void setPageExecutor(Executor executor) {
+        pageExecutor.set(executor);
+    }
+
+    public ObjectProperty<Executor> pageExecutorProperty() {
+        return pageExecutor;
+    }
+
+    public Node getPlaceholder() {
+        return placeholder.get();
+    }
+
+    public void setPlaceholder(Node node) {
+        placeholder.set(node);
+    }
+
+    public ObjectProperty<Node> placeholderProperty() {
+        return placeholder;
+    }
+
+    public OFxPageTransition getTransition() {
+        return transition.get();
+    }
+
+    public void setTransition(OFxPageTransition value) {
+        transition.set(value);
+    }
+
+    public ObjectProperty<OFxPageTransition> transitionProperty() {
+        return transition;
+    }
+
+    public Duration getTransitionDuration() {
+        return transitionDuration.get();
+    }
+
+    public void setTransitionDuration(Duration value) {
+        transitionDuration.set(value);
+    }
+
+    public ObjectProperty<Duration> transitionDurationProperty() {
+        return transitionDuration;
+    }
+
+    public boolean isAutoPauseAnimations() {
+        return autoPauseAnimations.get();
+    }
+
+    public void setAutoPauseAnimations(boolean value) {
+        autoPauseAnimations.set(value);
+    }
+
+    public BooleanProperty autoPauseAnimationsProperty() {
+        return autoPauseAnimations;
+    }
+
+    public long getHeapBudget() {
+        return heapBudget.get();
+    }
+
+    public void setHeapBudget(long bytes) {
+        heapBudget.set(bytes);
+    }
+
+    public LongProperty heapBudgetProperty() {
+        return heapBudget;
+    }
+
+    public boolean isHibernateOnMemoryPressure() {
+        return hibernateOnMemoryPressure.get();
+    }
+
+    public void setHibernateOnMemoryPressure(boolean value) {
+        hibernateOnMemoryPressure.set(value);
+    }
+
+    public BooleanProperty hibernateOnMemoryPressureProperty() {
+        return hibernateOnMemoryPressure;
+    }
+
+    /**
+     * Hibernates every inactive factory page: its state is saved, its nodes are dropped,
+     * and it is rebuilt and restored the next time its index is selected.
+     * Declared pages can't be rebuilt, so they are left alone.
+     */
+    public void hibernateInactivePages() {
+        evictPages(0);
+    }
+
+    /**
+     * Attaches lifecycle callbacks to a page, for pages that don't implement {@link OFxPage} themselves.
+     *
+     * @param page      the page
+     * @param lifecycle the callbacks, or {@code null} to remove them
+     */
+    public static void setPageLifecycle(Node page, OFxPage lifecycle) {
+        if (lifecycle == null) page.getProperties().remove(PAGE_LIFECYCLE_KEY);
+        else page.getProperties().put(PAGE_LIFECYCLE_KEY, lifecycle);
+    }
+
+    // Returns the lifecycle callbacks of a page, the page itself if it implements OFxPage, or null.
+    public static OFxPage getPageLifecycle(Node page) {
+        Object lifecycle = page.getProperties().get(PAGE_LIFECYCLE_KEY);
+        if (lifecycle instanceof OFxPage) return (OFxPage) lifecycle;
+        return page instanceof OFxPage ? (OFxPage) page : null;
+    }
+
+    /**
+     * Registers an animation driving the given node, or any node of a page.
+     * When {@link #autoPauseAnimationsProperty() autoPauseAnimations} is enabled, the animation
+     * is paused while the page containing the node is inactive, and resumed when it is activated again.
+     *
+     * @param node      the node the animation belongs to
+     * @param animation the animation
+     */
+    @SuppressWarnings("unchecked")
+    public static void addPageAnimation(Node node, Animation animation) {
+        Objects.requireNonNull(animation, "animation");
+        ((List<Animation>) node.getProperties().computeIfAbsent(PAGE_ANIMATIONS_KEY, key -> new ArrayList<Animation>()))
+                .add(animation);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void removePageAnimation(Node node, Animation animation) {
+        Object animations = node.getProperties().get(PAGE_ANIMATIONS_KEY);
+        if (animations != null) ((List<Animation>) animations).remove(animation);
+    }
+
+    /**
+     * Returns an executor starting a virtual thread per page, when the running JVM supports them (JDK 21+).
+     * On older runtimes the default daemon thread pool is returned instead.
+     */
+    public static Executor newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return DEFAULT_PAGE_EXECUTOR;
+        }
+    }
+
+    /**
+     * Builds the factory page at the given index on the {@link #pageExecutor page executor},
+     * then adds it to the cache on the FX thread. The page is shown right away if its index
+     * is selected by then. Calling this method again while the page is being built returns the
+     * same future. Like the rest of the switcher, this method must be called on the FX thread.
+     *
+     * @param index the index of the page
+     * @return a future completed on the FX thread with the page, or with {@code null} if there is no page at this index
+     */
+    public CompletableFuture<Node> prebuildPage(int index) {
+        Supplier<? extends Node> factory = pageFactories.get(index);
+        if (factory == null || pageCache.containsKey(index)) {
+            return CompletableFuture.completedFuture(findPage(index));
+        }
+        CompletableFuture<Node> pending = pendingPages.get(index);
+        if (pending != null) return pending;
+
+        CompletableFuture<Node> future = CompletableFuture
+                .supplyAsync(() -> Objects.requireNonNull((Node) factory.get(),
+                        "Page factory returned null for index " + index), getPageExecutor())
+                .whenCompleteAsync((page, error) -> {
+                    // Ignoring the result if the factory was replaced or removed in the meantime.
+                    if (pendingPages.get(index) == null || pageFactories.get(index) != factory) return;
+                    pendingPages.remove(index);
+                    if (page != null && !pageCache.containsKey(index)) addPage(index, page);
+                    if (index == shownIndex) updateVisibilityChild();
+                }, Platform::runLater);
+        pendingPages.put(index, future);
+        return future;
+    }
+
+    /**
+     * Registers a factory building the page shown at the given index.
+     * The factory is called the first time the index is selected, and again
+     * if the page was evicted from the cache in the meantime.
+     * A factory page takes precedence over a declared child at the same index.
+     *
+     * @param index   the index of the page
+     * @param factory the factory building the page, or {@code null} to remove it
+     */
+    public void setPageFactory(int index, Supplier<? extends Node> factory) {
+        if (factory == null) {
+            removePageFactory(index);
+            return;
+        }
+        pageFactories.put(index, factory);
+        pendingPages.remove(index);
+        savedStates.remove(index);
+        // Dropping a page built by a previous factory for the same index.
+        evictPage(index);
+        if (index == shownIndex) {
+            loadPage(index);
+            updateVisibilityChild();
+        }
+    }
+
+    /**
+     * Registers an FXML document as the page shown at the given index.
+     * The document is loaded the first time the index is selected.
+     *
+     * @param index       the index of the page
+     * @param fxmlLocation the location of the FXML document
+     */
+    public void setPageFactory(int index, URL fxmlLocation) {
+        Objects.requireNonNull(fxmlLocation, "fxmlLocation");
+        setPageFactory(index, () -> {
+            try {
+                FXMLLoader loader = new FXMLLoader(fxmlLocation);
+                Node page = loader.load();
+                // A controller implementing OFxPage receives the lifecycle callbacks of its page.
+                Object controller = loader.getController();
+                if (controller instanceof OFxPage) setPageLifecycle(page, (OFxPage) controller);
+                return page;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load page " + index + " from " + fxmlLocation, e);
+            }
+        });
+    }
+
+    // Removes the factory registered for the given index, along with the page it built.
+    public void removePageFactory(int index) {
+        if (pageFactories.remove(index) != null) {
+            pendingPages.remove(index);
+            savedStates.remove(index);
+            evictPage(index);
+            updateVisibilityChild();
+        }
+    }
+
+    /**
+     * Removes a declared page, attached or not. In detach mode inactive pages aren't children of the
+     * switcher, so they can only be removed this way.
+     */
+    public void removePage(Node page) {
+        if (!declaredPages.remove(page)) return;
+        if (page == activePage) {
+            activePage = null;
+            deactivatePage(page);
+        }
+        if (page.getParent() == this) removeChildren(List.of(page));
+        disposePage(page);
+        updateVisibilityChild();
+    }
+
+    // Returns true if the page at the given index is built (a factory page in the cache, or a declared child).
+    public boolean isPageLoaded(int index) {
+        if (pageFactories.containsKey(index)) return pageCache.containsKey(index);
+        return findPage(index) != null;
+    }
+
+    // Builds the factory page at the given index if it isn't in the cache yet.
+    private void loadPage(int index) {
+        Supplier<? extends Node> factory = pageFactories.get(index);
+        if (factory == null || pageCache.get(index) != null) return;
+
+        addPage(index, Objects.requireNonNull(factory.get(), "Page factory returned null for index " + index));
+    }
+
+    // Adds a page built by the factory at the given index to the cache and to the children.
+    private void addPage(int index, Node page) {
+        page.getProperties().put(FACTORY_PAGE_KEY, index);
+        // Adding the page hidden, the visibility update decides whether it is shown.
+        page.setVisible(false);
+        page.setManaged(false);
+        // Restoring the state saved by the page this one replaces, if it was evicted before.
+        Object state = savedStates.remove(index);
+        OFxPage lifecycle = getPageLifecycle(page);
+        if (state != null && lifecycle != null) lifecycle.restoreState(state);
+
+        pageCache.put(index, page);
+        addChildren(List.of(page));
+        trimPageCache();
+    }
+
+    // Evicts the least recently used factory pages until the cache fits its size.
+    private void trimPageCache() {
+        evictPages(Math.max(1, cacheSize.get()));
+    }
+
+    // Evicts the least recently used inactive factory pages, saving their state, until at most 'keep' remain.
+    private void evictPages(int keep) {
+        List<Node> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Integer, Node>> it = pageCache.entrySet().iterator();
+        while (pageCache.size() > keep && it.hasNext()) {
+            Map.Entry<Integer, Node> eldest = it.next();
+            if (eldest.getKey() == shownIndex) continue;
+            it.remove();
+            evicted.add(eldest.getValue());
+
+            OFxPage lifecycle = getPageLifecycle(eldest.getValue());
+            Object state = lifecycle != null ? lifecycle.saveState() : null;
+            if (state != null) savedStates.put(eldest.getKey(), state);
+        }
+        // Removing the evicted pages outside of the iteration, in a single change of the children list.
+        if (evicted.isEmpty()) return;
+        removeChildren(evicted);
+        for (Node page : evicted) disposePage(page);
+    }
+
+    // Removes the factory page built for the given index, if any.
+    private void evictPage(int index) {
+        Node page = pageCache.remove(index);
+        if (page == null) return;
+        if (page == activePage) {
+            activePage = null;
+            deactivatePage(page);
+        }
+        removeChildren(List.of(page));
+        disposePage(page);
+    }
+
+    // Switches the pages to the given index: builds the page if needed, then swaps the outgoing and incoming pages.
+    private void applyIndex(int newIndex) {
+        int previousIndex = shownIndex;
+        if (previousIndex != newIndex) recordTransition(previousIndex, newIndex);
+        shownIndex = newIndex;
+        // Building the factory page (if any) before updating the visibility, so it can be shown right away.
+        if (isAsyncLoading() && pageFactories.containsKey(newIndex) && !pageCache.containsKey(newIndex)) {
+            prebuildPage(newIndex).whenComplete((page, error) -> {
+                if (error != null) reportError(error);
+            });
+        } else {
+            loadPage(newIndex);
+        }
+        updateVisibilityChild();
+
+        // Heap usage after the last collection, which only shows what hibernating freed once the next one has run.
+        long budget = getHeapBudget();
+        if (budget > 0 && OFxMemoryMonitor.getCollectionCount() != hibernatedAtCollection
+                && OFxMemoryMonitor.getUsedHeap() > budget) {
+            hibernatedAtCollection = OFxMemoryMonitor.getCollectionCount();
+            hibernateInactivePages();
+        }
+
+        schedulePrefetch(newIndex);
+    }
+
+    // Counts a switch between two indices, and whether the page switched to was ready.
+    private void recordTransition(int from, int to) {
+        Node page = findPage(to);
+        boolean ready = page != null && isAttached(page);
+        if (ready) pageHits++;
+        else pageMisses++;
+
+        if (from >= 0) transitionCounts.computeIfAbsent(from, key -> new HashMap<>()).merge(to, 1, Integer::sum);
+    }
+
+    // Queues the pages most often selected after the given index, to be prepared during the next idle pulses.
+    private void schedulePrefetch(int from) {
+        prefetchQueue.clear();
+        Map<Integer, Integer> targets = transitionCounts.get(from);
+        if (!isPrefetch() || targets == null) return;
+
+        List<Map.Entry<Integer, Integer>> likely = new ArrayList<>(targets.entrySet());
+        likely.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed());
+        for (int i = 0; i < likely.size() && i < prefetchCount.get(); i++) {
+            prefetchQueue.add(likely.get(i).getKey());
+        }
+        Platform.requestNextPulse();
+    }
+
+    // Prepares queued pages once the layout pass of a pulse is done, until the prefetch budget is spent.
+    private void runPrefetch() {
+        // A pulse animating a transition or about to switch pages isn't idle.
+        if (prefetchQueue.isEmpty() || runningTransition != null || indexChangePending) return;
+
+        long deadline = System.nanoTime() + (long) (getPrefetchBudget().toMillis() * 1_000_000);
+        do {
+            int index = prefetchQueue.poll();
+            if (index != shownIndex) prefetchPage(index);
+        } while (!prefetchQueue.isEmpty() && System.nanoTime() < deadline);
+
+        if (!prefetchQueue.isEmpty()) Platform.requestNextPulse();
+    }
+
+    // Builds the page at the given index if it is a factory page (in the background with asyncLoading),
+    // and attaches it hidden in detach mode.
+    private void prefetchPage(int index) {
+        if (pageFactories.containsKey(index) && !pageCache.containsKey(index)) {
+            if (isAsyncLoading()) {
+                prebuildPage(index).whenComplete((page, error) -> {
+                    if (error != null) reportError(error);
+                });
+            } else {
+                loadPage(index);
+            }
+        }
+        Node page = findPage(index);
+        if (page != null && !isAttached(page)) attachPages(List.of(page));
+    }
+
+    // Applies the last index set since the previous pulse, called before each layout pass of the scene.
+    private void applyPendingIndex() {
+        if (!indexChangePending) return;
+        indexChangePending = false;
+        if (getIndex() != shownIndex) applyIndex(getIndex());
+    }
+
+    // Keeps the pulse listeners registered on the current scene while changes are coalesced or pages prefetched.
+    private void updatePulseListener() {
+        Scene scene = isCoalesceIndexChanges() || isPrefetch() ? getScene() : null;
+        if (scene == pulseScene) return;
+
+        if (pulseScene != null) {
+            pulseScene.removePreLayoutPulseListener(indexPulseListener);
+            pulseScene.removePostLayoutPulseListener(prefetchPulseListener);
+        }
+        pulseScene = scene;
+        if (pulseScene != null) {
+            pulseScene.addPreLayoutPulseListener(indexPulseListener);
+            pulseScene.addPostLayoutPulseListener(prefetchPulseListener);
+        } else if (indexChangePending) {
+            // Without a scene there is no pulse to wait for, so a pending change is applied right away.
+            indexChangePending = false;
+            applyIndex(getIndex());
+        }
+    }
+
+    // Returns the page shown at the given index without building it, or null if there is none.
+    // Factory pages are looked up in the cache, other indices map to the declared children in order.
+    private Node findPage(int index) {
+        if (pageFactories.containsKey(index)) return pageCache.get(index);
+        return index >= 0 && index < declaredPages.size() ? declaredPages.get(index) : null;
+    }
+
     // Method to update visibility and manage the child nodes based on the 'index' property.
-    // Only the child at the 'index' will be visible and managed (i.e., it can be interacted with).
+    // Only the page at the 'index' will be visible and managed (i.e., it can be interacted with).
     private void updateVisibilityChild() {
-        int index = this.index.get();
+        Node page = findPage(shownIndex);
+        // The placeholder stands in for a page that is being built in the background.
+        showPlaceholder(page == null && pendingPages.containsKey(shownIndex));
+        if (page == activePage) return;
 
-        // Iterating through the children of the StackPane (all the child nodes added to the StackPane).
-        for (int j = 0; j < getChildren().size(); j++) {
-            Node child = getChildren().get(j);
+        // Ending a transition still running, so the page it animates is back in its normal state before any snapshot.
+        stopTransition();
 
-            // Setting the 'managed' property to true or false for each child.
+        // Only the outgoing and the incoming pages are touched, whatever the number of children.
+        Node previous = activePage;
+        boolean forward = shownIndex >= activeIndex;
+        activePage = page;
+        activeIndex = shownIndex;
+        ImageView snapshot = page != null && previous != null ? snapshotPage(previous) : null;
+        if (previous != null) {
+            // The focus owner has to be saved before hiding the page, it is lost as soon as the page turns invisible.
+            if (isDetachInactive()) savePageState(previous);
+            hidePage(previous);
+            deactivatePage(previous);
+        }
+        if (page != null) {
+            if (!isAttached(page)) attachPages(List.of(page));
             // A node that is managed is part of the layout and can be interacted with.
-            child.setManaged(j == index);
-
-            // Setting the 'visible' property to true or false for each child.
+            page.setManaged(true);
             // A node that is visible is shown on the screen.
-            child.setVisible(j == index);
+            page.setVisible(true);
+            restoreFocus(page);
+            activatePage(page);
         }
+        updateAttachedPages();
+        if (snapshot != null) playTransition(snapshot, page, forward);
+    }
+
+    // Rasterizes the outgoing page at the screen's render scale, or returns null when no transition has to be played.
+    private ImageView snapshotPage(Node page) {
+        OFxPageTransition type = getTransition();
+        if (type == null || type == OFxPageTransition.NONE || getScene() == null
+                || !isAttached(page) || !page.isVisible()) return null;
+
+        double width = page.getBoundsInParent().getWidth();
+        double height = page.getBoundsInParent().getHeight();
+        if (width <= 0 || height <= 0) return null;
+
+        Window window = getScene().getWindow();
+        double scaleX = window != null ? window.getOutputScaleX() : 1;
+        double scaleY = window != null ? window.getOutputScaleY() : 1;
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setTransform(Transform.scale(scaleX, scaleY));
+        WritableImage image = page.snapshot(parameters, null);
+
+        ImageView view = new ImageView(image);
+        view.setFitWidth(width);
+        view.setFitHeight(height);
+        view.setManaged(false);
+        view.relocate(page.getBoundsInParent().getMinX(), page.getBoundsInParent().getMinY());
+        view.getProperties().put(INTERNAL_NODE_KEY, Boolean.TRUE);
+        return view;
+    }
+
+    // Plays the transition from the snapshot of the outgoing page to the incoming page.
+    private void playTransition(ImageView snapshot, Node incoming, boolean forward) {
+        Animation animation = getTransition().create(snapshot, incoming, getWidth(), forward, getTransitionDuration());
+        if (animation == null) return;
+
+        // Saving what the transition animates on the incoming page, so it can be restored when it ends.
+        double opacity = incoming.getOpacity();
+        double translateX = incoming.getTranslateX();
+        double scaleX = incoming.getScaleX();
+        double scaleY = incoming.getScaleY();
+        // Clipping the pages to the switcher while they move, unless a clip is already set.
+        Rectangle clip = getClip() == null ? new Rectangle() : null;
+        if (clip != null) {
+            clip.widthProperty().bind(widthProperty());
+            clip.heightProperty().bind(heightProperty());
+            setClip(clip);
+        }
+
+        addChildren(List.of(snapshot));
+
+        transitionCleanup = () -> {
+            incoming.setOpacity(opacity);
+            incoming.setTranslateX(translateX);
+            incoming.setScaleX(scaleX);
+            incoming.setScaleY(scaleY);
+            if (clip != null && getClip() == clip) setClip(null);
+            removeChildren(List.of(snapshot));
+        };
+        runningTransition = animation;
+        animation.setOnFinished(e -> stopTransition());
+        animation.play();
+    }
+
+    // Stops the running transition, if any, and restores the nodes it animates.
+    private void stopTransition() {
+        if (runningTransition == null) return;
+
+        Animation animation = runningTransition;
+        Runnable cleanup = transitionCleanup;
+        runningTransition = null;
+        transitionCleanup = null;
+        animation.stop();
+        cleanup.run();
+    }
+
+    private static void hidePage(Node page) {
+        page.setVisible(false);
+        page.setManaged(false);
+    }
+
+    // Keeps the declared pages in sync with the children list and hides every added node that isn't the active page.
+    private void onChildrenChanged(ListChangeListener.Change<? extends Node> change) {
+        if (updatingChildren) return;
+        notifyingChildren = true;
+        try {
+            followChildrenChange(change);
+        } finally {
+            notifyingChildren = false;
+        }
+    }
+
+    private void followChildrenChange(ListChangeListener.Change<? extends Node> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                reorderDeclaredPages();
+                continue;
+            }
+            if (change.wasRemoved() && change.getFrom() == 0 && change.getTo() == getChildren().size()) {
+                // Replacing the whole list with the same nodes, as FXCollections.reverse() does, only reorders it.
+                if (change.getRemovedSize() == change.getAddedSize()
+                        && new HashSet<>(change.getRemoved()).equals(new HashSet<>(change.getAddedSubList()))) {
+                    reorderDeclaredPages();
+                    continue;
+                }
+                // The whole list was cleared or replaced, which drops the detached pages as well.
+                List<Node> detached = new ArrayList<>(declaredPages);
+                detached.removeAll(change.getRemoved());
+                declaredPages.removeAll(detached);
+                for (Node page : detached) disposePage(page);
+            }
+            for (Node removed : change.getRemoved()) {
+                // Pages evicted by the switcher itself are already out of the cache, and disposed by the eviction.
+                boolean released = isFactoryPage(removed)
+                        ? pageCache.remove(removed.getProperties().get(FACTORY_PAGE_KEY), removed)
+                        : declaredPages.remove(removed);
+                if (removed == activePage) {
+                    activePage = null;
+                    deactivatePage(removed);
+                }
+                if (released) disposePage(removed);
+            }
+            if (change.wasAdded()) {
+                int position = declaredPositionOf(change.getFrom(), change.getAddedSize());
+                for (Node added : change.getAddedSubList()) {
+                    if (!isFactoryPage(added)) declaredPages.add(position++, added);
+                    if (added != activePage) hidePage(added);
+                }
+            }
+        }
+        updateVisibilityChild();
+    }
+
+    // Follows a reordering of the children, which only happens on toFront()/toBack() style calls.
+    // Only the slots of the attached pages are reordered, detached pages keep their index.
+    private void reorderDeclaredPages() {
+        List<Node> reordered = new ArrayList<>();
+        for (Node child : getChildren()) {
+            if (isDeclaredPage(child) && declaredPages.contains(child)) reordered.add(child);
+        }
+        int[] slots = new int[reordered.size()];
+        for (int i = 0; i < slots.length; i++) slots[i] = declaredPages.indexOf(reordered.get(i));
+        Arrays.sort(slots);
+        for (int i = 0; i < slots.length; i++) declaredPages.set(slots[i], reordered.get(i));
+    }
+
+    // Returns the declared index a child inserted at the given position of the children list gets.
+    private int declaredPositionOf(int childPosition, int addedSize) {
+        List<Node> children = getChildren();
+        // Appending is by far the common case (FXML, factory pages), so it doesn't need any lookup.
+        if (childPosition + addedSize == children.size()) return declaredPages.size();
+        for (int j = childPosition - 1; j >= 0; j--) {
+            Node previous = children.get(j);
+            if (isDeclaredPage(previous)) return declaredPages.indexOf(previous) + 1;
+        }
+        return 0;
+    }
+
+    // Adds internal nodes or pages to the children without going through the children listener.
+    private void addChildren(Collection<? extends Node> nodes) {
+        List<Node> added = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            // A node whose removal is still deferred simply stays.
+            if (!deferredRemovals.remove(node)) added.add(node);
+        }
+        if (added.isEmpty()) return;
+        updatingChildren = true;
+        try {
+            getChildren().addAll(added);
+        } finally {
+            updatingChildren = false;
+        }
+    }
+
+    // Removes internal nodes or pages from the children without going through the children listener.
+    // Children can't be removed while the list notifies a change, so removals made from the children listener,
+    // such as the placeholder detached once a page is added, wait for the next layout pass.
+    private void removeChildren(Collection<? extends Node> nodes) {
+        if (notifyingChildren) {
+            deferredRemovals.addAll(nodes);
+            requestLayout();
+            return;
+        }
+        updatingChildren = true;
+        try {
+            getChildren().removeAll(nodes);
+        } finally {
+            updatingChildren = false;
+        }
+    }
+
+    // Returns true if the node is one of the children and not about to be removed.
+    private boolean isAttached(Node node) {
+        return node.getParent() == this && !deferredRemovals.contains(node);
     }
 
-    // Overridden layoutChildren method, which is called when layout calculations are done.
-    // It updates the visibility of children every time the layout is recalculated.
     @Override
-    protected void layoutChildren(){
-        // Calling the superclass method to ensure proper layout behavior.
+    protected void layoutChildren() {
+        if (!deferredRemovals.isEmpty()) {
+            List<Node> removals = new ArrayList<>(deferredRemovals);
+            deferredRemovals.clear();
+            removeChildren(removals);
+        }
         super.layoutChildren();
-        // Updating the visibility of children based on the current 'index' value.
-        updateVisibilityChild();
+    }
+
+    private static boolean isFactoryPage(Node node) {
+        return node.getProperties().containsKey(FACTORY_PAGE_KEY);
+    }
+
+    private static boolean isDeclaredPage(Node node) {
+        return !isFactoryPage(node) && !node.getProperties().containsKey(INTERNAL_NODE_KEY);
+    }
+
+    // Resumes the animations paused with the page, hands it the context changes it missed, then tells it it is active.
+    @SuppressWarnings("unchecked")
+    private void activatePage(Node page) {
+        Object paused = page.getProperties().remove(PAUSED_ANIMATIONS_KEY);
+        if (paused != null) {
+            for (Animation animation : (List<Animation>) paused) {
+                if (animation.getStatus() == Animation.Status.PAUSED) animation.play();
+            }
+        }
+        context.activate(page);
+        OFxPage lifecycle = getPageLifecycle(page);
+        if (lifecycle != null) lifecycle.onActivate();
+    }
+
+    // Tells the page it is inactive, then pauses the animations registered under it if the automatic mode is on.
+    private void deactivatePage(Node page) {
+        context.activate(null);
+        OFxPage lifecycle = getPageLifecycle(page);
+        if (lifecycle != null) lifecycle.onDeactivate();
+        if (!isAutoPauseAnimations()) return;
+
+        List<Animation> paused = new ArrayList<>();
+        pauseAnimations(page, paused);
+        if (!paused.isEmpty()) page.getProperties().put(PAUSED_ANIMATIONS_KEY, paused);
+    }
+
+    // Pauses the running animations registered on the node and its descendants, collecting them into the list.
+    @SuppressWarnings("unchecked")
+    private static void pauseAnimations(Node node, List<Animation> paused) {
+        Object animations = node.getProperties().get(PAGE_ANIMATIONS_KEY);
+        if (animations != null) {
+            for (Animation animation : (List<Animation>) animations) {
+                if (animation.getStatus() == Animation.Status.RUNNING) {
+                    animation.pause();
+                    paused.add(animation);
+                }
+            }
+        }
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) pauseAnimations(child, paused);
+        }
+    }
+
+    private static void disposePage(Node page) {
+        OFxPage lifecycle = getPageLifecycle(page);
+        if (lifecycle != null) lifecycle.onDispose();
+    }
+
+    // Attaches or detaches the placeholder on top of the pages.
+    private void showPlaceholder(boolean show) {
+        if (show == (shownPlaceholder != null)) return;
+
+        if (show) {
+            shownPlaceholder = getPlaceholder() != null ? getPlaceholder() : new ProgressIndicator();
+            shownPlaceholder.getProperties().put(INTERNAL_NODE_KEY, Boolean.TRUE);
+            addChildren(List.of(shownPlaceholder));
+        } else {
+            removeChildren(List.of(shownPlaceholder));
+            shownPlaceholder.getProperties().remove(INTERNAL_NODE_KEY);
+            shownPlaceholder = null;
+        }
+    }
+
+    // Hands an error thrown while building a page in the background to the FX thread's exception handler.
+    private static void reportError(Throwable error) {
+        Thread thread = Thread.currentThread();
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, cause);
+    }
+
+    // Attaches the active page and its built neighbours, and detaches every other page. Does nothing outside detach mode.
+    private void updateAttachedPages() {
+        if (!isDetachInactive()) return;
+
+        Set<Node> wanted = new HashSet<>();
+        if (activePage != null) wanted.add(activePage);
+        int index = shownIndex;
+        for (int d = 1; d <= attachedNeighbours.get(); d++) {
+            Node before = findPage(index - d);
+            Node after = findPage(index + d);
+            if (before != null) wanted.add(before);
+            if (after != null) wanted.add(after);
+        }
+
+        // Only the attached pages are visited, which is a handful of nodes in detach mode.
+        List<Node> detached = new ArrayList<>();
+        for (Node child : getChildren()) {
+            // Children already on their way out count as detached, and are only kept if wanted again.
+            if (deferredRemovals.contains(child)) continue;
+            if (!wanted.remove(child) && !child.getProperties().containsKey(INTERNAL_NODE_KEY)) detached.add(child);
+        }
+        for (Node page : detached) savePageState(page);
+
+        removeChildren(detached);
+        // Whatever is left in the set still has to be attached.
+        attachPages(new ArrayList<>(wanted));
+    }
+
+    // Attaches every declared and cached page again, when the detach mode is turned off.
+    private void attachAllPages() {
+        List<Node> pages = new ArrayList<>();
+        for (Node page : declaredPages) {
+            if (!isAttached(page)) pages.add(page);
+        }
+        for (Node page : pageCache.values()) {
+            if (!isAttached(page)) pages.add(page);
+        }
+        attachPages(pages);
+    }
+
+    // Adds the given pages to the children, hidden unless active, and restores their scroll positions.
+    private void attachPages(List<Node> pages) {
+        if (pages.isEmpty()) return;
+        for (Node page : pages) {
+            if (page != activePage) hidePage(page);
+        }
+        addChildren(pages);
+        for (Node page : pages) restoreScrollState(page);
+    }
+
+    // Saves the focus owner and the scroll positions of a page before it is hidden or detached.
+    private void savePageState(Node page) {
+        Scene scene = page.getScene();
+        Node focusOwner = scene != null ? scene.getFocusOwner() : null;
+        if (focusOwner != null && isDescendant(focusOwner, page)) {
+            page.getProperties().put(FOCUS_OWNER_KEY, focusOwner);
+        }
+
+        Map<ScrollPane, double[]> scrollState = new IdentityHashMap<>();
+        for (Node node : page.lookupAll(".scroll-pane")) {
+            if (node instanceof ScrollPane) {
+                ScrollPane scrollPane = (ScrollPane) node;
+                scrollState.put(scrollPane, new double[] { scrollPane.getHvalue(), scrollPane.getVvalue() });
+            }
+        }
+        if (!scrollState.isEmpty()) page.getProperties().put(SCROLL_STATE_KEY, scrollState);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void restoreScrollState(Node page) {
+        Object saved = page.getProperties().remove(SCROLL_STATE_KEY);
+        if (saved == null) return;
+        ((Map<ScrollPane, double[]>) saved).forEach((scrollPane, values) -> {
+            scrollPane.setHvalue(values[0]);
+            scrollPane.setVvalue(values[1]);
+        });
+    }
+
+    // Gives the focus back to the node that owned it when the page was left, if it is still part of the page.
+    private static void restoreFocus(Node page) {
+        Object saved = page.getProperties().remove(FOCUS_OWNER_KEY);
+        if (saved instanceof Node && isDescendant((Node) saved, page)) {
+            ((Node) saved).requestFocus();
+        }
+    }
+
+    private static boolean isDescendant(Node node, Node ancestor) {
+        for (Node current = node; current != null; current = current.getParent()) {
+            if (current == ancestor) return true;
+        }
+        return false;
     }
 }
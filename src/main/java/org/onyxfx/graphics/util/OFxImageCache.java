@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.util;
+
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.image.Image;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * Library-wide image service.
+ * Images are decoded on background threads, at the size they are requested for, and kept in a
+ * least recently used cache bounded by the bytes of the decoded pixels. Requests for an image that is
+ * already being decoded wait for that decode instead of starting another one, so any number of
+ * controls showing the same URL cost a single decode.
+ *
+ * Sources are URLs, paths of existing files, SceneBuilder "@" paths (looked up in the working directory),
+ * or keys {@link #register(String, String) registered} for a URL.
+ * With {@link #setClearOnMemoryPressure(boolean) clearOnMemoryPressure} enabled, the cache is cleared
+ * when {@link OFxMemoryMonitor} reports memory pressure.
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+public final class OFxImageCache {
+
+    // Shared executor of daemon threads decoding the images.
+    private static final Executor EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), runnable -> {
+                Thread thread = new Thread(runnable, "OFxImageCache-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // Decoded images, the least recently used first.
+    private static final LinkedHashMap<Object, Image> IMAGES = new LinkedHashMap<>(64, 0.75f, true);
+    // Decodes in progress, shared by every request for the same image.
+    private static final Map<Object, CompletableFuture<Image>> LOADING = new HashMap<>();
+    // URLs registered under a key.
+    private static final Map<String, String> KEYS = new HashMap<>();
+
+    private static long maxBytes = 64L * 1024 * 1024;
+    private static long usedBytes;
+    private static long hitCount;
+    private static long missCount;
+
+    // When true, the cache is cleared on memory pressure notifications.
+    private static boolean clearOnMemoryPressure;
+    // Held here since the memory monitor only keeps a weak reference to it.
+    private static final Runnable MEMORY_PRESSURE_LISTENER = OFxImageCache::clear;
+
+    private OFxImageCache() {
+    }
+
+    /**
+     * Returns the image of a source at its natural size.
+     * @see #load(String, double, double)
+     */
+    public static CompletableFuture<Image> load(String source) {
+        return load(source, 0, 0);
+    }
+
+    /**
+     * Returns the image of a source, decoded to fit in the given size with its ratio preserved
+     * (0 keeps the natural size). A cached image is returned in an already completed future;
+     * otherwise the future is completed on the FX thread once the image is decoded, or completed
+     * exceptionally if it can't be loaded.
+     */
+    public static CompletableFuture<Image> load(String source, double width, double height) {
+        Objects.requireNonNull(source, "source");
+        Key key = new Key(source, Math.max(0, width), Math.max(0, height));
+        return load(key, () -> decode(key.source, key.width, key.height));
+    }
+
+    /**
+     * Returns the image cached under a key, or builds it with the loader on a loader thread.
+     * This lets controls cache images they derive from others, such as pre-rendered bitmaps,
+     * in the same budget. Keys must implement equals and hashCode.
+     * The future is completed as with {@link #load(String, double, double)}.
+     */
+    public static CompletableFuture<Image> load(Object key, Supplier<? extends Image> loader) {
+        Objects.requireNonNull(key, "key");
+        CompletableFuture<Image> future;
+        synchronized (OFxImageCache.class) {
+            Image image = IMAGES.get(key);
+            if (image != null) {
+                hitCount++;
+                return CompletableFuture.completedFuture(image);
+            }
+            future = LOADING.get(key);
+            if (future != null) {
+                hitCount++;
+                return future;
+            }
+            missCount++;
+            future = new CompletableFuture<>();
+            LOADING.put(key, future);
+        }
+        CompletableFuture<Image> result = future;
+        EXECUTOR.execute(() -> produce(key, loader, result));
+        return result;
+    }
+
+    /**
+     * Returns the image cached under a key, or builds it with the builder on the calling thread and caches it.
+     * Meant for images that have to be drawn on the FX thread, such as snapshots of text.
+     */
+    public static Image get(Object key, Supplier<? extends Image> builder) {
+        Objects.requireNonNull(key, "key");
+        synchronized (OFxImageCache.class) {
+            Image image = IMAGES.get(key);
+            if (image != null) {
+                hitCount++;
+                return image;
+            }
+            missCount++;
+        }
+        Image image = Objects.requireNonNull(builder.get(), "builder returned no image");
+        synchronized (OFxImageCache.class) {
+            Image previous = IMAGES.put(key, image);
+            if (previous != null) usedBytes -= bytesOf(previous);
+            usedBytes += bytesOf(image);
+            trim();
+        }
+        return image;
+    }
+
+    /**
+     * Sets the target to the image of the source every time the source changes,
+     * or to null when the source is null. Results of sources changed in the meantime are dropped,
+     * and failures go to the FX thread's uncaught exception handler.
+     */
+    public static void follow(ObservableValue<String> source, ObjectProperty<Image> target, double width, double height) {
+        source.addListener((obs, oldVal, newVal) -> loadInto(source, target, width, height));
+        if (source.getValue() != null) loadInto(source, target, width, height);
+    }
+
+    /** Registers a URL under a key, which can then be used as a source. */
+    public static synchronized void register(String key, String url) {
+        KEYS.put(key, url);
+    }
+
+    public static synchronized void unregister(String key) {
+        KEYS.remove(key);
+    }
+
+    /** Drops every cached image. Images still shown by controls stay on screen. */
+    public static synchronized void clear() {
+        IMAGES.clear();
+        usedBytes = 0;
+    }
+
+    public static synchronized boolean isClearOnMemoryPressure() {
+        return clearOnMemoryPressure;
+    }
+
+    /**
+     * Sets whether the cache is cleared when {@link OFxMemoryMonitor} reports memory pressure, false by default.
+     * Enabling it installs the monitor, which sets collection usage thresholds on the heap pools of the JVM.
+     */
+    public static synchronized void setClearOnMemoryPressure(boolean value) {
+        if (value == clearOnMemoryPressure) return;
+        clearOnMemoryPressure = value;
+        if (value) OFxMemoryMonitor.addListener(MEMORY_PRESSURE_LISTENER);
+        else OFxMemoryMonitor.removeListener(MEMORY_PRESSURE_LISTENER);
+    }
+
+    public static synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /** Sets the bytes of decoded pixels the cache may hold, 64 MB by default. */
+    public static synchronized void setMaxBytes(long bytes) {
+        if (bytes < 0) throw new IllegalArgumentException("Max bytes can't be negative: " + bytes);
+        maxBytes = bytes;
+        trim();
+    }
+
+    // Returns the bytes of decoded pixels currently held by the cache.
+    public static synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public static synchronized int getImageCount() {
+        return IMAGES.size();
+    }
+
+    // Returns the number of requests served without decoding, from the cache or a decode in progress.
+    public static synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    // Returns the number of requests that started a decode.
+    public static synchronized long getMissCount() {
+        return missCount;
+    }
+
+    // Returns the fraction of requests served without decoding, 0 before the first request.
+    public static synchronized double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public static synchronized void resetStatistics() {
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    private static void loadInto(ObservableValue<String> source, ObjectProperty<Image> target, double width, double height) {
+        String requested = source.getValue();
+        if (requested == null) {
+            target.set(null);
+            return;
+        }
+        load(requested, width, height).whenComplete((image, error) -> {
+            if (!requested.equals(source.getValue())) return;
+            if (error != null) reportError(error);
+            else target.set(image);
+        });
+    }
+
+    /**
+     * Decodes a source on the calling thread, to fit in the given size with its ratio preserved (0 keeps the
+     * natural size), without caching it. Meant for the loaders passed to {@link #load(Object, Supplier)}.
+     */
+    public static Image decode(String source, double width, double height) {
+        return decode(source, width, height, true);
+    }
+
+    /** Decodes a source like {@link #decode(String, double, double)}, stretched to the size unless the ratio is preserved. */
+    public static Image decode(String source, double width, double height, boolean preserveRatio) {
+        Image image = new Image(resolve(source), width, height, preserveRatio, true, false);
+        if (image.getException() != null) throw new IllegalArgumentException("Can't load image: " + source, image.getException());
+        if (image.isError()) throw new IllegalArgumentException("Can't load image: " + source);
+        return image;
+    }
+
+    // Builds an image on a loader thread, then caches it and completes its future on the FX thread.
+    private static void produce(Object key, Supplier<? extends Image> loader, CompletableFuture<Image> future) {
+        Image image = null;
+        Throwable error = null;
+        try {
+            image = loader.get();
+            if (image == null) error = new IllegalStateException("No image built for " + key);
+        } catch (Throwable e) {
+            // Errors too, such as running out of memory on a large image, or the decode would stay pending forever.
+            error = e;
+        }
+
+        synchronized (OFxImageCache.class) {
+            LOADING.remove(key);
+            if (error == null) {
+                IMAGES.put(key, image);
+                usedBytes += bytesOf(image);
+                trim();
+            }
+        }
+        Image loaded = image;
+        Throwable failure = error;
+        Platform.runLater(() -> {
+            if (failure != null) future.completeExceptionally(failure);
+            else future.complete(loaded);
+        });
+    }
+
+    // Turns a source into a URL Image understands.
+    private static String resolve(String source) {
+        String url;
+        synchronized (OFxImageCache.class) {
+            url = KEYS.getOrDefault(source, source);
+        }
+        if (url.startsWith("@")) {
+            return new File(System.getProperty("user.dir"), url.substring(1).replace("/", File.separator)).toURI().toString();
+        }
+        if (!url.contains(":/")) {
+            File file = new File(url);
+            if (file.exists()) return file.toURI().toString();
+        }
+        return url;
+    }
+
+    // Evicts the least recently used images until the cache fits in its budget.
+    private static void trim() {
+        Iterator<Image> it = IMAGES.values().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            usedBytes -= bytesOf(it.next());
+            it.remove();
+        }
+    }
+
+    private static long bytesOf(Image image) {
+        return 4L * (long) image.getWidth() * (long) image.getHeight();
+    }
+
+    private static void reportError(Throwable error) {
+        Thread thread = Thread.currentThread();
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, cause);
+    }
+
+    // Identifies an image by its source and the size it is decoded for.
+    private static final class Key {
+        private final String source;
+        private final double width;
+        private final double height;
+
+        Key(String source, double width, double height) {
+            this.source = source;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return width == key.width && height == key.height && source.equals(key.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, width, height);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.util;
+
+import javafx.application.Platform;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * Library-wide memory pressure notifications.
+ * The monitor sets a collection usage threshold on the heap pools of the JVM and calls
+ * its listeners on the FX thread whenever a pool is still above the threshold after a
+ * garbage collection. OFx components use it to drop what they can rebuild later.
+ *
+ * Listeners are held weakly, so the caller has to keep a reference to them
+ * for as long as they should be notified.
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+public final class OFxMemoryMonitor {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private static final List<WeakReference<Runnable>> LISTENERS = new ArrayList<>();
+
+    // Fraction of a pool's maximum size above which memory is considered under pressure.
+    private static double usageThreshold = 0.75;
+
+    private static boolean installed;
+
+    private OFxMemoryMonitor() {
+    }
+
+    /**
+     * Adds a listener called on the FX thread when the heap is under pressure.
+     * The listener is held weakly.
+     */
+    public static synchronized void addListener(Runnable listener) {
+        install();
+        LISTENERS.add(new WeakReference<>(listener));
+    }
+
+    public static synchronized void removeListener(Runnable listener) {
+        LISTENERS.removeIf(ref -> ref.get() == null || ref.get() == listener);
+    }
+
+    public static synchronized double getUsageThreshold() {
+        return usageThreshold;
+    }
+
+    /**
+     * Sets the fraction (between 0 and 1) of a heap pool's maximum size above which
+     * memory is considered under pressure. Defaults to 0.75.
+     */
+    public static synchronized void setUsageThreshold(double fraction) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("Usage threshold must be in (0, 1]: " + fraction);
+        }
+        usageThreshold = fraction;
+        if (installed) applyThresholds();
+    }
+
+    /**
+     * Returns the number of bytes the heap pools used after their latest garbage collection, i.e. what
+     * was still reachable then. Garbage not collected yet isn't counted, unlike in the current heap usage.
+     */
+    public static long getUsedHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) continue;
+            MemoryUsage usage = pool.getCollectionUsage();
+            used += (usage != null ? usage : pool.getUsage()).getUsed();
+        }
+        return used;
+    }
+
+    // Returns the number of garbage collections run so far, a new value meaning getUsedHeap() may have changed.
+    public static long getCollectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    // Registers the notification listener on the memory bean, the first time a listener is added.
+    private static void install() {
+        if (installed) return;
+        installed = true;
+        applyThresholds();
+
+        NotificationListener listener = (notification, handback) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                Platform.runLater(OFxMemoryMonitor::notifyListeners);
+            }
+        };
+        ((NotificationEmitter) MEMORY).addNotificationListener(listener, null, null);
+    }
+
+    private static void applyThresholds() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * usageThreshold));
+            }
+        }
+    }
+
+    private static void notifyListeners() {
+        List<Runnable> listeners = new ArrayList<>();
+        synchronized (OFxMemoryMonitor.class) {
+            LISTENERS.removeIf(ref -> ref.get() == null);
+            for (WeakReference<Runnable> ref : LISTENERS) {
+                Runnable listener = ref.get();
+                if (listener != null) listeners.add(listener);
+            }
+        }
+        for (Runnable listener : listeners) listener.run();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * Key/value storage for the settings OFx components remember between runs, such as avatar colors.
+ * Applications can plug their own storage in; {@link OFxWriteBehindPreferenceStore} puts a memory
+ * cache in front of a slow store and writes to it in batches on a background thread.
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+public interface OFxPreferenceStore {
+
+    // Returns the value stored under the key, or null.
+    String get(String key);
+
+    // Stores a value under the key, or removes the key when the value is null.
+    void put(String key, String value);
+
+    // Writes whatever is still pending to the underlying storage.
+    default void flush() {
+    }
+
+    /**
+     * Returns a store reading and writing the given java.util.prefs node directly.
+     * Keys longer than the node allows are stored under a digest of the key.
+     */
+    static OFxPreferenceStore of(Preferences node) {
+        return new OFxPreferenceStore() {
+            @Override
+            public String get(String key) {
+                return node.get(nodeKey(key), null);
+            }
+
+            @Override
+            public void put(String key, String value) {
+                if (value == null) node.remove(nodeKey(key));
+                else node.put(nodeKey(key), value);
+            }
+
+            private String nodeKey(String key) {
+                if (key.length() <= Preferences.MAX_KEY_LENGTH) return key;
+                return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)).toString();
+            }
+
+            @Override
+            public void flush() {
+                try {
+                    node.flush();
+                } catch (BackingStoreException e) {
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        };
+    }
+
+    /** Returns a store that only lives in memory, e.g. for tests or kiosk setups. */
+    static OFxPreferenceStore inMemory() {
+        Map<String, String> values = new ConcurrentHashMap<>();
+        return new OFxPreferenceStore() {
+            @Override
+            public String get(String key) {
+                return values.get(key);
+            }
+
+            @Override
+            public void put(String key, String value) {
+                if (value == null) values.remove(key);
+                else values.put(key, value);
+            }
+        };
+    }
+}
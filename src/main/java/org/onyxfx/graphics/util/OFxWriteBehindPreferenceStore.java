@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @ONYX-FX
+ *
+ * Preference store keeping every value it has read or written in memory, and writing changes to
+ * another store in batches on a background thread.
+ * - Each key is read from the other store at most once, absent keys included
+ * - Writes return right away; the changes made within the write delay are written together,
+ *   the last value of a key only, followed by a single flush
+ * - Pending changes are written on {@link #flush()}, {@link #close()} and when the JVM shuts down
+ *
+ * @author MuhammedTJ
+ * @version 1.0
+ * @since 2025
+ *
+ */
+public class OFxWriteBehindPreferenceStore implements OFxPreferenceStore, AutoCloseable {
+
+    // Shared thread of daemon writers.
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OFxPreferenceStore-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Stores still open, all flushed by a single shutdown hook. Held weakly, a store waiting for a write is
+    // kept alive by the writer until it is done.
+    private static final Set<OFxWriteBehindPreferenceStore> OPEN_STORES = Collections.newSetFromMap(new WeakHashMap<>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(OFxWriteBehindPreferenceStore::flushOpenStores,
+                "OFxPreferenceStore-shutdown"));
+    }
+
+    private final OFxPreferenceStore backend;
+    private final long writeDelayMillis;
+
+    // Values known for each key, empty for keys that aren't stored.
+    private final Map<String, Optional<String>> values = new ConcurrentHashMap<>();
+    // Changes not written yet, in the order they were made.
+    private final Map<String, Optional<String>> pending = new LinkedHashMap<>();
+    private boolean writeScheduled;
+    // Held from taking a batch of changes until it is written, so batches reach the other store in order.
+    private final Object flushLock = new Object();
+
+    public OFxWriteBehindPreferenceStore(OFxPreferenceStore backend) {
+        this(backend, 500);
+    }
+
+    public OFxWriteBehindPreferenceStore(OFxPreferenceStore backend, long writeDelayMillis) {
+        this.backend = backend;
+        this.writeDelayMillis = writeDelayMillis;
+        synchronized (OPEN_STORES) {
+            OPEN_STORES.add(this);
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        return values.computeIfAbsent(key, k -> Optional.ofNullable(backend.get(k))).orElse(null);
+    }
+
+    @Override
+    public void put(String key, String value) {
+        Optional<String> stored = Optional.ofNullable(value);
+        values.put(key, stored);
+        synchronized (pending) {
+            pending.put(key, stored);
+            if (writeScheduled) return;
+            writeScheduled = true;
+        }
+        WRITER.schedule(this::flush, writeDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Writes the pending changes to the other store, then flushes it. Blocks until done. */
+    @Override
+    public void flush() {
+        // Only one batch is taken and written at a time, so an older batch can't overwrite a newer one.
+        // Writes made meanwhile only wait for the pending map, not for the other store.
+        synchronized (flushLock) {
+            Map<String, Optional<String>> changes;
+            synchronized (pending) {
+                writeScheduled = false;
+                if (pending.isEmpty()) return;
+                changes = new LinkedHashMap<>(pending);
+                pending.clear();
+            }
+            changes.forEach((key, value) -> backend.put(key, value.orElse(null)));
+            backend.flush();
+        }
+    }
+
+    /** Writes the pending changes, and stops flushing this store when the JVM shuts down. */
+    @Override
+    public void close() {
+        flush();
+        synchronized (OPEN_STORES) {
+            OPEN_STORES.remove(this);
+        }
+    }
+
+    private static void flushOpenStores() {
+        List<OFxWriteBehindPreferenceStore> stores;
+        synchronized (OPEN_STORES) {
+            stores = new ArrayList<>(OPEN_STORES);
+        }
+        for (OFxWriteBehindPreferenceStore store : stores) store.flush();
+    }
+
+    // Returns the number of changes waiting to be written.
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.controls;
+
+import javafx.application.Platform;
+import javafx.beans.Observable;
+import javafx.scene.image.WritableImage;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+public class OFxAvatarViewTest extends TestCase {
+
+    private static final int FLIPS = 100_000;
+    // Retained heap the flips may add, far below what a listener per flip would keep.
+    private static final long MAX_HEAP_GROWTH = 2L * 1024 * 1024;
+
+    @Override
+    protected void setUp() throws Exception {
+        // Controls need the FX toolkit, which another test may have started already.
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Platform.startup(started::countDown);
+        } catch (IllegalStateException alreadyStarted) {
+            started.countDown();
+        }
+        assertTrue("FX toolkit did not start", started.await(10, TimeUnit.SECONDS));
+    }
+
+    public void testModeFlipsKeepListenersAndHeapFlat() throws Exception {
+        long[] result = onFxThread(() -> {
+            WritableImage uploaded = new WritableImage(40, 40);
+            OFxAvatarView avatar = new OFxAvatarView(new WritableImage(30, 30));
+            List<Observable> properties = List.of(avatar.widthProperty(), avatar.heightProperty(),
+                    avatar.layoutBoundsProperty(), avatar.sizeProperty(), avatar.fitWidthProperty(),
+                    avatar.fitHeightProperty(), avatar.tintColorProperty());
+
+            // Warm up, so caches and lazily created state are already there before measuring.
+            flip(avatar, uploaded, 1_000);
+            int[] listenersBefore = listenerCounts(properties);
+            long heapBefore = retainedHeap();
+
+            flip(avatar, uploaded, FLIPS);
+            int[] listenersAfter = listenerCounts(properties);
+            long heapAfter = retainedHeap();
+
+            assertEquals(Arrays.toString(listenersBefore), Arrays.toString(listenersAfter));
+            return new long[] {heapBefore, heapAfter};
+        });
+        long growth = result[1] - result[0];
+        assertTrue("Retained heap grew by " + growth + " bytes", growth < MAX_HEAP_GROWTH);
+    }
+
+    private static void flip(OFxAvatarView avatar, WritableImage uploaded, int count) {
+        for (int i = 0; i < count; i++) avatar.setUploadedImage(i % 2 == 0 ? uploaded : null);
+        avatar.setUploadedImage(null);
+    }
+
+    // Listeners registered on each property, read from its expression helper.
+    private static int[] listenerCounts(List<Observable> properties) throws Exception {
+        int[] counts = new int[properties.size()];
+        for (int i = 0; i < counts.length; i++) counts[i] = listenerCount(properties.get(i));
+        return counts;
+    }
+
+    private static int listenerCount(Observable property) throws Exception {
+        Object helper = field(property, "helper").get(property);
+        if (helper == null) return 0;
+        if (helper.getClass().getSimpleName().startsWith("Single")) return 1;
+        return field(helper, "invalidationSize").getInt(helper) + field(helper, "changeSize").getInt(helper);
+    }
+
+    private static Field field(Object owner, String name) throws NoSuchFieldException {
+        for (Class<?> type = owner.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException e) {
+                // Declared further up
+            }
+        }
+        throw new NoSuchFieldException(owner.getClass().getName() + "." + name);
+    }
+
+    private static long retainedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static <T> T onFxThread(Callable<T> callable) throws Exception {
+        FutureTask<T> task = new FutureTask<>(callable);
+        Platform.runLater(task);
+        try {
+            return task.get(120, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw (Exception) e.getCause();
+        }
+    }
+}
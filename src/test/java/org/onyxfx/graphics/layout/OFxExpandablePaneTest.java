@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.layout;
+
+import javafx.application.Platform;
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class OFxExpandablePaneTest extends TestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        // Controls need the FX toolkit, which another test may have started already.
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Platform.startup(started::countDown);
+        } catch (IllegalStateException alreadyStarted) {
+            started.countDown();
+        }
+        assertTrue("FX toolkit did not start", started.await(10, TimeUnit.SECONDS));
+    }
+
+    public void testFilteringHidesAndRestoresPane() {
+        OFxExpandablePane pane = new OFxExpandablePane();
+
+        pane.setFilteredOut(true);
+        assertFalse(pane.isVisible());
+        assertFalse(pane.isManaged());
+
+        pane.setFilteredOut(false);
+        assertTrue(pane.isVisible());
+        assertTrue(pane.isManaged());
+    }
+
+    public void testFilteringKeepsPaneHiddenByApplication() {
+        OFxExpandablePane pane = new OFxExpandablePane();
+        pane.setVisible(false);
+        pane.setManaged(false);
+
+        pane.setFilteredOut(true);
+        pane.setFilteredOut(false);
+
+        assertFalse(pane.isVisible());
+        assertFalse(pane.isManaged());
+    }
+
+    public void testApplicationChangesWhileFilteredOutApplyAfterwards() {
+        OFxExpandablePane pane = new OFxExpandablePane();
+        pane.setVisible(false);
+        pane.setFilteredOut(true);
+
+        pane.setVisible(true);
+        assertFalse("a filtered out pane stays hidden", pane.isVisible());
+
+        pane.setFilteredOut(false);
+        assertTrue(pane.isVisible());
+        assertTrue(pane.isManaged());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) [2025] [MuhammedTJ]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onyxfx.graphics.layout;
+
+import javafx.collections.FXCollections;
+import javafx.scene.Node;
+import javafx.scene.layout.Region;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class OFxSwitcherTest extends TestCase {
+
+    public void testReplacingAllChildrenWhileDetachedReplacesEveryPage() {
+        Region a = page("A"), b = page("B"), c = page("C");
+        OFxSwitcher switcher = new OFxSwitcher();
+        switcher.getChildren().addAll(a, b, c);
+        switcher.setIndex(0);
+        switcher.setDetachInactive(true);
+        assertEquals(List.of(a), switcher.getChildren());
+
+        Region x = page("X"), y = page("Y");
+        switcher.getChildren().setAll(x, y);
+
+        assertShown(switcher, 0, x);
+        assertShown(switcher, 1, y);
+        assertFalse(switcher.isPageLoaded(2));
+        assertNull(b.getParent());
+        assertNull(c.getParent());
+    }
+
+    public void testReorderingAttachedPagesKeepsDetachedIndices() {
+        Region p = page("P"), q = page("Q"), r = page("R"), t = page("T");
+        OFxSwitcher switcher = new OFxSwitcher();
+        switcher.getChildren().addAll(p, q, r, t);
+        switcher.setIndex(0);
+        switcher.setAttachedNeighbours(1);
+        switcher.setDetachInactive(true);
+        assertEquals(List.of(p, q), switcher.getChildren());
+
+        FXCollections.reverse(switcher.getChildren());
+
+        assertShown(switcher, 0, q);
+        assertShown(switcher, 1, p);
+        assertShown(switcher, 2, r);
+        assertShown(switcher, 3, t);
+    }
+
+    public void testMovingAttachedPageBackKeepsDetachedIndices() {
+        Region p = page("P"), q = page("Q"), r = page("R"), t = page("T");
+        OFxSwitcher switcher = new OFxSwitcher();
+        switcher.getChildren().addAll(p, q, r, t);
+        switcher.setIndex(0);
+        switcher.setAttachedNeighbours(1);
+        switcher.setDetachInactive(true);
+
+        q.toBack();
+
+        assertShown(switcher, 0, q);
+        assertShown(switcher, 1, p);
+        assertShown(switcher, 2, r);
+        assertShown(switcher, 3, t);
+    }
+
+    public void testRemovingDetachedPage() {
+        Region a = page("A"), b = page("B"), c = page("C");
+        OFxSwitcher switcher = new OFxSwitcher();
+        switcher.getChildren().addAll(a, b, c);
+        switcher.setIndex(0);
+        switcher.setDetachInactive(true);
+
+        switcher.removePage(b);
+
+        assertShown(switcher, 0, a);
+        assertShown(switcher, 1, c);
+        assertFalse(switcher.isPageLoaded(2));
+    }
+
+    private static void assertShown(OFxSwitcher switcher, int index, Node page) {
+        switcher.setIndex(index);
+        assertSame(switcher, page.getParent());
+        assertTrue(page.getId() + " is not shown at " + index, page.isVisible());
+        for (Node child : switcher.getChildren()) {
+            if (child != page) assertFalse(child.getId() + " is shown at " + index, child.isVisible());
+        }
+    }
+
+    private static Region page(String id) {
+        Region page = new Region();
+        page.setId(id);
+        return page;
+    }
+}